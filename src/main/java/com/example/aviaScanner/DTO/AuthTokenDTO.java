@@ -0,0 +1,17 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.Instant;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthTokenDTO {
+    private String token;
+    // always "Bearer"
+    private String tokenType;
+    private Instant expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.example.aviaScanner.DTO;
+
+import com.example.aviaScanner.model.UserRole;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthUserDTO {
+    private Long id;
+    private String email;
+    private UserRole role;
+}
@@ -0,0 +1,21 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.Instant;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserAuditDTO {
+    private Long id;
+    private Long userId;
+    private AviaScanerUserAuditAction action;
+    @JsonRawValue
+    private String changes;
+    private Instant changedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.aviaScanner.DTO;
+
+import java.util.List;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserBatchDTO {
+    // found users, in the order their ids were requested
+    private List<AviaScannerUserDTO> users;
+    private List<Long> missingIds;
+}
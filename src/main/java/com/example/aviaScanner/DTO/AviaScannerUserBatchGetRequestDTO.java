@@ -0,0 +1,19 @@
+package com.example.aviaScanner.DTO;
+
+import java.util.List;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserBatchGetRequestDTO {
+    public static final int MAX_IDS = 5000;
+
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,20 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.Instant;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserChangeDTO {
+    private long seq;
+    private Long userId;
+    private AviaScanerUserAuditAction changeType;
+    private Instant changedAt;
+    // current state of the user, null once it has been deleted
+    private AviaScannerUserDTO user;
+}
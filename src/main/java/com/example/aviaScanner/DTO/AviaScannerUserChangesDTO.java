@@ -0,0 +1,16 @@
+package com.example.aviaScanner.DTO;
+
+import java.util.List;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserChangesDTO {
+    private List<AviaScannerUserChangeDTO> changes;
+    // pass as since on the next request
+    private long nextSince;
+}
@@ -3,6 +3,7 @@ package com.example.aviaScanner.DTO;
 import java.time.LocalDate;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 
@@ -32,4 +33,8 @@ public class AviaScannerUserDTO {
     @JsonFormat(pattern = "dd.MM.yyyy")
     @Past(message = "birth date must be in the past")
     private LocalDate birthDate;
+
+    // exposed as the ETag header, not in the body
+    @JsonIgnore
+    private Long version;
 } 
\ No newline at end of file
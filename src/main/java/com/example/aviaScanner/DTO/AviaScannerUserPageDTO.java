@@ -0,0 +1,17 @@
+package com.example.aviaScanner.DTO;
+
+import java.util.List;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScannerUserPageDTO {
+    private List<AviaScannerUserDTO> users;
+
+    // id to pass as "after" for the next page, null when there are no more rows
+    private Long nextCursor;
+}
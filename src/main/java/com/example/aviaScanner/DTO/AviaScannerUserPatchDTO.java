@@ -0,0 +1,36 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.LocalDate;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+
+/**
+ * JSON Merge Patch body for a user. Every user field is required, so null (or an absent
+ * member) leaves the field unchanged instead of removing it. id is ignored and any other unknown
+ * member is rejected, so a misspelled field is not silently dropped.
+ * Touched fields are validated against the constraints of {@link AviaScannerUserDTO}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties("id")
+public class AviaScannerUserPatchDTO {
+    private String name;
+    private String email;
+    private String phone;
+    private String location;
+
+    @JsonFormat(pattern = "dd.MM.yyyy")
+    private LocalDate birthDate;
+
+    // the application's ObjectMapper ignores unknown properties, so they are refused here
+    @JsonAnySetter
+    private void rejectUnknown(String name, Object value) {
+        throw new IllegalArgumentException("unknown member '" + name + "'");
+    }
+}
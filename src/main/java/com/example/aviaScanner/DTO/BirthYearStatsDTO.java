@@ -0,0 +1,14 @@
+package com.example.aviaScanner.DTO;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BirthYearStatsDTO {
+    private int birthYear;
+    private long userCount;
+}
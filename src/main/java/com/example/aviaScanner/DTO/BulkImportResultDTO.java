@@ -0,0 +1,17 @@
+package com.example.aviaScanner.DTO;
+
+import java.util.List;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<BulkImportRowResultDTO> rows;
+}
@@ -0,0 +1,17 @@
+package com.example.aviaScanner.DTO;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportRowResultDTO {
+    // 1-based position of the row in the uploaded body
+    private int row;
+    private BulkImportRowStatus status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,7 @@
+package com.example.aviaScanner.DTO;
+
+public enum BulkImportRowStatus {
+    CREATED,
+    DUPLICATE_EMAIL,
+    VALIDATION_ERROR
+}
@@ -0,0 +1,20 @@
+package com.example.aviaScanner.DTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.*;
+
+
+// Cheapest offer seen for a route by a recent search, not a live quote.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheapestFareDTO {
+    private String origin;
+    private String destination;
+    private LocalDate date;
+    private BigDecimal price;
+    private String currency;
+}
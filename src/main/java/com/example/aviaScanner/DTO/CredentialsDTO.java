@@ -0,0 +1,20 @@
+package com.example.aviaScanner.DTO;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CredentialsDTO {
+    @NotBlank
+    @Email
+    private String email;
+
+    @NotBlank
+    @Size(min = 8, max = 128)
+    private String password;
+}
@@ -1,13 +1,40 @@
 package com.example.aviaScanner.DTO;
 
 import java.time.LocalDateTime;
+import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ErrorResponse {
+    public static final String USER_NOT_FOUND = "User not found";
+
+    // left out of not-found bodies, which are built on the hot lookup path
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private LocalDateTime timestamp;
     private int status;
     private String error;
     private String message;
     private String path;
-}
\ No newline at end of file
+    // id of the user that already owns the email on a create conflict
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long existingId;
+
+    public static ErrorResponse of(HttpStatus status, String message, String path) {
+        return new ErrorResponse(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message, path, null);
+    }
+
+    public static ErrorResponse duplicateEmail(Long existingId, String path) {
+        return new ErrorResponse(LocalDateTime.now(), HttpStatus.CONFLICT.value(),
+            HttpStatus.CONFLICT.getReasonPhrase(), "User with this email already exists", path, existingId);
+    }
+
+    public static ErrorResponse notFound(String path) {
+        return new ErrorResponse(null, HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND.getReasonPhrase(),
+            USER_NOT_FOUND, path, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.aviaScanner.DTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+
+// Times are local to the departure and arrival airports.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightOfferDTO {
+    private String provider;
+    private String flightNumber;
+    private String origin;
+    private String destination;
+    private LocalDateTime departure;
+    private LocalDateTime arrival;
+    private int durationMinutes;
+    private int stops;
+    private BigDecimal price;
+    private String currency;
+}
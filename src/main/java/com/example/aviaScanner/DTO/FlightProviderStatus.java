@@ -0,0 +1,7 @@
+package com.example.aviaScanner.DTO;
+
+public enum FlightProviderStatus {
+    OK,
+    TIMEOUT,
+    FAILED
+}
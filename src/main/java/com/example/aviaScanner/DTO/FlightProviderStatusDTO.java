@@ -0,0 +1,18 @@
+package com.example.aviaScanner.DTO;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightProviderStatusDTO {
+    private String provider;
+    private FlightProviderStatus status;
+    private int offers;
+    private long latencyMs;
+    // a second request was sent because the first was slower than the hedge delay
+    private boolean hedged;
+}
@@ -0,0 +1,25 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.*;
+
+
+// Also the shape of the partial results streamed per provider, with complete=false.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightSearchResultDTO {
+    private String origin;
+    private String destination;
+    private LocalDate date;
+    private List<FlightOfferDTO> offers;
+    private List<FlightProviderStatusDTO> providers;
+    // every provider answered in time
+    private boolean complete;
+    // when the providers were asked; older than now for results served from the fare cache
+    private Instant searchedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.aviaScanner.DTO;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationStatsDTO {
+    private String location;
+    private long userCount;
+}
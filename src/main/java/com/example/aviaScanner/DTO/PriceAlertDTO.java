@@ -0,0 +1,31 @@
+package com.example.aviaScanner.DTO;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+
+// Fires once, when a search finds a fare on the route at or below maxPrice. Without an origin
+// the alert is for flights from the user's location.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceAlertDTO {
+    private Long id;
+    private Long userId;
+
+    private String origin;
+
+    @NotBlank
+    private String destination;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 10, fraction = 2)
+    private BigDecimal maxPrice;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,136 @@
+package com.example.aviaScanner.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounds the number of callers that may hold a pooled connection at once.
+ * Waiting happens on a fair semaphore in front of the pool, so thousands of
+ * virtual threads queue in FIFO order instead of contending inside Hikari,
+ * and the time spent queueing is measured separately from the time the
+ * connection is actually in use.
+ */
+public class AdmissionControlDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final Timer queueWait;
+    private final Timer connectionUsage;
+    private final Counter rejected;
+
+    public AdmissionControlDataSource(DataSource target, int maxConcurrent, long timeoutMillis, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutMillis = timeoutMillis;
+        this.queueWait = Timer.builder("aviascanner.datasource.admission.wait")
+            .description("Time spent waiting for a database admission permit")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.connectionUsage = Timer.builder("aviascanner.datasource.admission.usage")
+            .description("Time a connection was held after admission")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("aviascanner.datasource.admission.rejected")
+            .description("Callers that timed out waiting for admission")
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.datasource.admission.waiting", permits, Semaphore::getQueueLength)
+            .description("Callers currently queued for admission")
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.datasource.admission.available", permits, Semaphore::availablePermits)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long admittedAt = admit();
+        try {
+            return track(super.getConnection(), admittedAt);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long admittedAt = admit();
+        try {
+            return track(super.getConnection(username, password), admittedAt);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private long admit() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                    "No database admission permit within " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database admission", e);
+        }
+        long admittedAt = System.nanoTime();
+        queueWait.record(admittedAt - start, TimeUnit.NANOSECONDS);
+        return admittedAt;
+    }
+
+    private Connection track(Connection connection, long admittedAt) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ReleasingHandler(connection, admittedAt));
+    }
+
+    private final class ReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final long admittedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target, long admittedAt) {
+            this.target = target;
+            this.admittedAt = admittedAt;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    target.close();
+                } finally {
+                    release();
+                }
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                connectionUsage.record(System.nanoTime() - admittedAt, TimeUnit.NANOSECONDS);
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.aviaScanner.config;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.service.UserEntityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Requires a bearer token on /api. Any role may read (GET, HEAD and the read-only POSTs) and manage
+// price alerts, which PriceAlertController limits to their owner; every other write needs ADMIN.
+// The token is checked against its signature and the role comes from a cache, so a warm request
+// never hits the database.
+// Runs before the rate limiter, which keys its quotas on the user id set here; a forged token
+// costs one signature check and is rejected without touching the database.
+@Component
+@Order(AuthenticationFilter.ORDER)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "aviascanner.auth.enabled", havingValue = "true", matchIfMissing = true)
+public class AuthenticationFilter extends OncePerRequestFilter {
+    // after the observation filter, so rejected requests still show up in http.server.requests
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+    public static final String USER_ID_ATTRIBUTE = AuthenticationFilter.class.getName() + ".userId";
+    public static final String ROLE_ATTRIBUTE = AuthenticationFilter.class.getName() + ".role";
+    static final String BEARER_PREFIX = UserEntityService.TOKEN_TYPE + " ";
+    // POST only because the request body carries the query
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/users/batch-get");
+    private static final Pattern PRICE_ALERTS = Pattern.compile("/api/users/\\d+/price-alerts(/\\d+)?");
+
+    private final UserEntityService userEntityService;
+    private final ObjectMapper objectMapper;
+
+    public AuthenticationFilter(UserEntityService userEntityService, ObjectMapper objectMapper) {
+        this.userEntityService = userEntityService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !requiresToken(request.getMethod(), request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        OptionalLong userId = authorization != null && authorization.startsWith(BEARER_PREFIX)
+            ? userEntityService.verifyToken(authorization.substring(BEARER_PREFIX.length()))
+            : OptionalLong.empty();
+        Optional<UserRole> role = userId.isPresent()
+            ? userEntityService.findRole(userId.getAsLong())
+            : Optional.empty();
+        if (role.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, UserEntityService.TOKEN_TYPE);
+            reject(request, response, HttpStatus.UNAUTHORIZED, "Missing, invalid or expired token");
+            return;
+        }
+        if (role.get() != UserRole.ADMIN && !openToEveryRole(request.getMethod(), request.getRequestURI())) {
+            reject(request, response, HttpStatus.FORBIDDEN, "Admin role required");
+            return;
+        }
+        request.setAttribute(USER_ID_ATTRIBUTE, userId.getAsLong());
+        request.setAttribute(ROLE_ATTRIBUTE, role.get());
+        chain.doFilter(request, response);
+    }
+
+    // The access rules below are shared with ReactiveAuthenticationFilter.
+    static boolean requiresToken(String method, String uri) {
+        return uri.startsWith("/api/") && !uri.equals("/api/auth/login") && !uri.equals("/api/auth/register")
+            && !"OPTIONS".equals(method);
+    }
+
+    static boolean openToEveryRole(String method, String uri) {
+        return "GET".equals(method) || "HEAD".equals(method)
+            || "POST".equals(method) && READ_ONLY_POSTS.contains(uri)
+            || PRICE_ALERTS.matcher(uri).matches();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(status, message, request.getRequestURI()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.aviaScanner.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed and declared in application.properties
+// (spring.cache.cache-names / spring.cache.caffeine.spec) so that actuator
+// binds their hit, miss and eviction metrics at startup.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS_BY_ID = "users";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String USER_ROLES = "userRoles";
+    public static final String ACCOUNT_EMAILS = "accountEmails";
+}
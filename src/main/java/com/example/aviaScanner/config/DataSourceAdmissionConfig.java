@@ -0,0 +1,37 @@
+package com.example.aviaScanner.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Enabled together with spring.threads.virtual.enabled unless overridden, because
+// virtual threads remove the Tomcat thread cap that used to limit pool contention.
+@Configuration
+@ConditionalOnProperty(name = "aviascanner.datasource.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceAdmissionPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof AdmissionControlDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getRequiredProperty(
+                    "aviascanner.datasource.admission.max-concurrent", Integer.class);
+                long timeoutMillis = environment.getRequiredProperty(
+                    "aviascanner.datasource.admission.timeout-ms", Long.class);
+                return new AdmissionControlDataSource(
+                    dataSource, maxConcurrent, timeoutMillis, meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.aviaScanner.config;
+
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import com.example.aviaScanner.service.StubFareProvider;
+
+// Registers a StubFareProvider for every name in aviascanner.flights.stubs, so flight search can
+// run locally without real fare sources. Each stub takes its latency and failure settings from
+// aviascanner.flights.stub.<name>.*, falling back to aviascanner.flights.stub.*.
+@Configuration
+public class FlightSearchConfig {
+
+    // Plain constructor arguments rather than an instance supplier, so the stubs survive AOT processing.
+    @Bean
+    static BeanDefinitionRegistryPostProcessor stubFareProviders(Environment environment) {
+        return (BeanDefinitionRegistry registry) -> {
+            for (String name : environment.getProperty("aviascanner.flights.stubs", String[].class, new String[0])) {
+                String beanName = "stubFareProvider." + name;
+                if (name.isBlank() || registry.containsBeanDefinition(beanName)) {
+                    continue;
+                }
+                RootBeanDefinition definition = new RootBeanDefinition(StubFareProvider.class);
+                ConstructorArgumentValues arguments = definition.getConstructorArgumentValues();
+                arguments.addIndexedArgumentValue(0, name);
+                arguments.addIndexedArgumentValue(1, stubProperty(environment, name, "median-latency-ms", Long.class, 80L));
+                arguments.addIndexedArgumentValue(2, stubProperty(environment, name, "p99-latency-ms", Long.class, 600L));
+                arguments.addIndexedArgumentValue(3, stubProperty(environment, name, "failure-rate", Double.class, 0.01));
+                arguments.addIndexedArgumentValue(4, stubProperty(environment, name, "offers", Integer.class, 20));
+                arguments.addIndexedArgumentValue(5, environment.getProperty("aviascanner.flights.currency", "RUB"));
+                registry.registerBeanDefinition(beanName, definition);
+            }
+        };
+    }
+
+    private static <T> T stubProperty(Environment environment, String name, String key, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty("aviascanner.flights.stub." + key, type, defaultValue);
+        return environment.getProperty("aviascanner.flights.stub." + name + "." + key, type, shared);
+    }
+}
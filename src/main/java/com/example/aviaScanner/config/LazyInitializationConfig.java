@@ -0,0 +1,29 @@
+package com.example.aviaScanner.config;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+// With spring.main.lazy-initialization=true (prod profile) @Scheduled methods would only be
+// registered once something happened to create their bean, so those beans stay eager.
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Set<Scheduled>>) (Method method) -> {
+            Set<Scheduled> scheduled = AnnotatedElementUtils.getMergedRepeatableAnnotations(method, Scheduled.class, Schedules.class);
+            return scheduled.isEmpty() ? null : scheduled;
+        }).isEmpty();
+    }
+}
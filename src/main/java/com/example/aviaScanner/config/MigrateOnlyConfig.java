@@ -0,0 +1,19 @@
+package com.example.aviaScanner.config;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Flyway has migrated the schema by the time runners are called, so the job can stop right there.
+@Configuration
+@Profile("migrate")
+public class MigrateOnlyConfig {
+
+    @Bean
+    ApplicationRunner exitAfterMigration(ConfigurableApplicationContext context) {
+        return args -> System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.aviaScanner.config;
+
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+
+// Per-client quota on /api, see RateLimitPolicy: each client is the authenticated user, else the
+// remote address, which server.forward-headers-strategy takes from trusted proxies. Runs after the
+// authentication filter, so only a verified token can select a user's bucket.
+@Component
+@Order(RateLimitFilter.ORDER)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "aviascanner.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    static final int ORDER = AuthenticationFilter.ORDER + 10;
+
+    private final RateLimitPolicy rateLimitPolicy;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitPolicy rateLimitPolicy, ObjectMapper objectMapper) {
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitPolicy.EndpointGroup group = RateLimitPolicy.classify(request.getMethod(), request.getRequestURI(),
+            request.getParameter("ids") != null, request.getParameter("email") != null,
+            request.getHeader(HttpHeaders.ACCEPT));
+        long retryAfterSeconds = rateLimitPolicy.acquire(clientKey(request), group);
+        if (retryAfterSeconds == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(HttpStatus.TOO_MANY_REQUESTS,
+            RateLimitPolicy.retryMessage(retryAfterSeconds), request.getRequestURI()));
+    }
+
+    static String clientKey(HttpServletRequest request) {
+        Object userId = request.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.aviaScanner.config;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.aviaScanner.utils.GcraRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Quotas behind RateLimitFilter and ReactiveRateLimitFilter: each client owns a token bucket and
+// every request takes tokens according to how much database work its endpoint does.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "aviascanner.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitPolicy {
+    // Default costs, overridable with aviascanner.ratelimit.costs.<group>.
+    enum EndpointGroup {
+        STREAM(200), BULK(100), AUTH(20), FLIGHT_SEARCH(20), LIST(10), BATCH_GET(10), SEARCH(3), WRITE(2), READ(1);
+
+        private final int defaultCost;
+
+        EndpointGroup(int defaultCost) {
+            this.defaultCost = defaultCost;
+        }
+    }
+
+    private final GcraRateLimiter rateLimiter;
+    private final Map<EndpointGroup, Integer> costs = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> throttled = new EnumMap<>(EndpointGroup.class);
+
+    public RateLimitPolicy(MeterRegistry meterRegistry, Environment environment,
+            @Value("${aviascanner.ratelimit.permits-per-second:100}") double permitsPerSecond,
+            @Value("${aviascanner.ratelimit.burst:200}") int burst) {
+        this.rateLimiter = new GcraRateLimiter(permitsPerSecond, burst);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String name = group.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            costs.put(group, environment.getProperty("aviascanner.ratelimit.costs." + name, Integer.class,
+                group.defaultCost));
+            throttled.put(group, Counter.builder("aviascanner.ratelimit.throttled")
+                .tag("endpoint", name)
+                .register(meterRegistry));
+        }
+        Gauge.builder("aviascanner.ratelimit.buckets", rateLimiter, GcraRateLimiter::size)
+            .register(meterRegistry);
+    }
+
+    /** Seconds the client has to wait before retrying, or 0 when the request may proceed. */
+    long acquire(String clientKey, EndpointGroup group) {
+        long waitNanos = rateLimiter.tryAcquire(clientKey, costs.get(group), System.nanoTime());
+        if (waitNanos == 0) {
+            return 0;
+        }
+        throttled.get(group).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    @Scheduled(fixedDelayString = "${aviascanner.ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = rateLimiter.evictIdle(System.nanoTime());
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    // Mirrors the routes of both user controllers, AuthController and FlightSearchController.
+    static EndpointGroup classify(String method, String uri, boolean byIds, boolean byEmail, String accept) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (uri.equals("/api/users") && read) {
+            if (byIds) {
+                return EndpointGroup.BATCH_GET;
+            }
+            if (byEmail) {
+                return EndpointGroup.READ;
+            }
+            return accept != null && accept.contains("application/x-ndjson")
+                ? EndpointGroup.STREAM
+                : EndpointGroup.LIST;
+        }
+        return switch (uri) {
+            case "/api/users/bulk" -> EndpointGroup.BULK;
+            // each login or registration runs the password KDF
+            case "/api/auth/login", "/api/auth/register" -> EndpointGroup.AUTH;
+            // each search calls every fare provider
+            case "/api/flights/search" -> EndpointGroup.FLIGHT_SEARCH;
+            case "/api/users/batch-get" -> EndpointGroup.BATCH_GET;
+            case "/api/users/search" -> EndpointGroup.SEARCH;
+            default -> read ? EndpointGroup.READ : EndpointGroup.WRITE;
+        };
+    }
+
+    static String retryMessage(long retryAfterSeconds) {
+        return "Rate limit exceeded, retry in " + retryAfterSeconds + "s";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.aviaScanner.config;
+
+import java.util.OptionalLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.service.UserEntityService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+
+// AuthenticationFilter for the reactive profile, with the same rules. The user id and role end up
+// in exchange attributes under the same names. A role cache miss queries the database, so the
+// lookup runs on the bounded elastic scheduler rather than the event loop.
+@Component
+@Order(ReactiveAuthenticationFilter.ORDER)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "aviascanner.auth.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveAuthenticationFilter implements WebFilter {
+    static final int ORDER = AuthenticationFilter.ORDER;
+
+    private final UserEntityService userEntityService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveAuthenticationFilter(UserEntityService userEntityService, ObjectMapper objectMapper) {
+        this.userEntityService = userEntityService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String method = exchange.getRequest().getMethod().name();
+        String uri = exchange.getRequest().getPath().value();
+        if (!AuthenticationFilter.requiresToken(method, uri)) {
+            return chain.filter(exchange);
+        }
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        OptionalLong userId = authorization != null && authorization.startsWith(AuthenticationFilter.BEARER_PREFIX)
+            ? userEntityService.verifyToken(authorization.substring(AuthenticationFilter.BEARER_PREFIX.length()))
+            : OptionalLong.empty();
+        if (userId.isEmpty()) {
+            return unauthorized(exchange);
+        }
+        return Mono.fromCallable(() -> userEntityService.findRole(userId.getAsLong()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(role -> {
+                if (role.isEmpty()) {
+                    return unauthorized(exchange);
+                }
+                if (role.get() != UserRole.ADMIN && !AuthenticationFilter.openToEveryRole(method, uri)) {
+                    return reject(exchange, objectMapper, HttpStatus.FORBIDDEN, "Admin role required");
+                }
+                exchange.getAttributes().put(AuthenticationFilter.USER_ID_ATTRIBUTE, userId.getAsLong());
+                exchange.getAttributes().put(AuthenticationFilter.ROLE_ATTRIBUTE, role.get());
+                return chain.filter(exchange);
+            });
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, UserEntityService.TOKEN_TYPE);
+        return reject(exchange, objectMapper, HttpStatus.UNAUTHORIZED, "Missing, invalid or expired token");
+    }
+
+    static Mono<Void> reject(ServerWebExchange exchange, ObjectMapper objectMapper, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ErrorResponse.of(status, message,
+                exchange.getRequest().getPath().value()));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
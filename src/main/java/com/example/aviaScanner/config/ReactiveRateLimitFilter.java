@@ -0,0 +1,61 @@
+package com.example.aviaScanner.config;
+
+import java.net.InetSocketAddress;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+
+// RateLimitFilter for the reactive profile, sharing its RateLimitPolicy and client keys.
+@Component
+@Order(ReactiveRateLimitFilter.ORDER)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "aviascanner.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveRateLimitFilter implements WebFilter {
+    static final int ORDER = ReactiveAuthenticationFilter.ORDER + 10;
+
+    private final RateLimitPolicy rateLimitPolicy;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveRateLimitFilter(RateLimitPolicy rateLimitPolicy, ObjectMapper objectMapper) {
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String uri = request.getPath().value();
+        if (!uri.startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        RateLimitPolicy.EndpointGroup group = RateLimitPolicy.classify(request.getMethod().name(), uri,
+            request.getQueryParams().containsKey("ids"), request.getQueryParams().containsKey("email"),
+            request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        long retryAfterSeconds = rateLimitPolicy.acquire(clientKey(exchange), group);
+        if (retryAfterSeconds == 0) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return ReactiveAuthenticationFilter.reject(exchange, objectMapper, HttpStatus.TOO_MANY_REQUESTS,
+            RateLimitPolicy.retryMessage(retryAfterSeconds));
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        Object userId = exchange.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (remoteAddress != null ? remoteAddress.getHostString() : "unknown");
+    }
+}
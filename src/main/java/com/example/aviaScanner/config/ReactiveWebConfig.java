@@ -0,0 +1,43 @@
+package com.example.aviaScanner.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Controllers that still return plain values (stats, flights...) are invoked on virtual
+// threads instead of the event loop when the reactive profile is active.
+// DataSourceAutoConfiguration backs off once there is an R2DBC ConnectionFactory, but writes and
+// the account lookups still run on JPA, so the JDBC pool is declared here; ReadReplicaConfig
+// declares its own when replicas are enabled.
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(name = "aviascanner.datasource.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(new VirtualThreadTaskExecutor("webflux-blocking-"));
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins("http://localhost:3000")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+                .allowedHeaders("*")
+                .allowCredentials(true);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.aviaScanner.config;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Replaces the auto-configured pool with the primary pool behind a lazy proxy. The proxy only
+// fetches a connection on the first statement, after the transaction has marked it read-only,
+// so read-only transactions can be handed to the replica router instead of the primary.
+// Every pool reports the usual hikaricp.* metrics under its own pool tag.
+@Configuration
+@ConditionalOnProperty(name = "aviascanner.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${aviascanner.datasource.replicas.urls}") List<String> urls,
+            @Value("${aviascanner.datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${aviascanner.datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${aviascanner.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${aviascanner.datasource.replicas.connection-timeout-ms:1000}") long connectionTimeoutMillis,
+            @Value("${aviascanner.datasource.replicas.max-lag-ms:1000}") long maxLagMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url);
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            // short, so a dead replica costs a read this long before it falls back to the primary
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis, meterRegistry);
+    }
+
+    // Spring Boot applies it to the executor behind StreamingResponseBody, Callable and @Async
+    @Bean
+    TaskDecorator replicaPinTaskDecorator() {
+        return ReplicaRoutingDataSource::carryPin;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        // given up front so the proxy does not open a connection at startup to look them up
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.aviaScanner.config;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// A client that wrote recently reads from the primary until any replica still in rotation must
+// have caught up: the lag tolerance plus one lag check interval. Clients are told apart like the
+// rate limiter does it, by authenticated user, else remote address. Write times are kept per
+// instance, so this holds for clients that stay on one instance.
+@Component
+@Order(ReadYourWritesFilter.ORDER)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "aviascanner.datasource.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final int ORDER = RateLimitFilter.ORDER + 10;
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesFilter(@Value("${aviascanner.datasource.replicas.max-lag-ms:1000}") long maxLagMillis,
+            @Value("${aviascanner.datasource.replicas.lag-check-interval-ms:1000}") long lagCheckIntervalMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis + lagCheckIntervalMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = RateLimitFilter.clientKey(request);
+        Long lastWrite = lastWrites.get(client);
+        boolean pinned = lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+        if (pinned) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                ReplicaRoutingDataSource.unpin();
+            }
+        }
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (!read && response.getStatus() < 400) {
+            lastWrites.put(client, System.nanoTime());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+}
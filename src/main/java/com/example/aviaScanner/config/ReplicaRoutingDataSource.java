@@ -0,0 +1,182 @@
+package com.example.aviaScanner.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out connections for read-only transactions: round-robin over the replicas that answered
+ * the last lag check streaming WAL and within the tolerance, falling back to the primary when none
+ * is usable or a replica refuses the connection. Requests pinned with {@link #pinToPrimary} always
+ * get the primary.
+ * <p>
+ * The pin belongs to the thread that set it. Work a request hands to the MVC async executor, such
+ * as a {@code StreamingResponseBody}, inherits it through {@link #carryPin}; anything else that
+ * answers a request from another thread, like a parked {@code DeferredResult}, must pin itself.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    // Lag is 0 when the replica has replayed everything it received, so it only means something
+    // while WAL is still arriving: a standby whose WAL receiver is down stays at 0 while the
+    // primary moves on. Such a standby reports streaming = false and is left out of rotation.
+    // Without pg_read_all_stats (pg_monitor) the receiver's status reads as NULL and only a running
+    // receiver process counts. A server that is not in recovery is treated as current.
+    static final String LAG_QUERY = """
+        SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE((EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000)::bigint, 0)
+            END,
+            NOT pg_is_in_recovery()
+                OR EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming')""";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter fallbacks;
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile boolean reachable = true;
+        volatile boolean streaming = true;
+        volatile long lagMillis;
+
+        Replica(HikariDataSource dataSource, Counter reads) {
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, long maxLagMillis,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.replicas = replicas.stream().map(dataSource -> {
+            Replica replica = new Replica(dataSource, Counter.builder("aviascanner.datasource.routing.reads")
+                .tag("pool", dataSource.getPoolName())
+                .register(meterRegistry));
+            Gauge.builder("aviascanner.datasource.replica.lag", replica, r -> r.lagMillis)
+                .description("Replication lag seen by the last check, in milliseconds")
+                .tag("pool", dataSource.getPoolName())
+                .register(meterRegistry);
+            Gauge.builder("aviascanner.datasource.replica.available", replica, r -> isUsable(r) ? 1 : 0)
+                .tag("pool", dataSource.getPoolName())
+                .register(meterRegistry);
+            return replica;
+        }).toList();
+        this.primaryReads = Counter.builder("aviascanner.datasource.routing.reads")
+            .tag("pool", "primary")
+            .register(meterRegistry);
+        this.fallbacks = Counter.builder("aviascanner.datasource.routing.fallbacks")
+            .description("Read-only connections served by the primary because no replica was usable")
+            .register(meterRegistry);
+    }
+
+    /** Sends the read-only transactions of the current thread to the primary until {@link #unpin}. */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    /** Wraps a task so that it runs pinned if the thread submitting it is pinned. */
+    public static Runnable carryPin(Runnable task) {
+        if (!isPinnedToPrimary()) {
+            return task;
+        }
+        return () -> {
+            pinToPrimary();
+            try {
+                task.run();
+            } finally {
+                unpin();
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PINNED_TO_PRIMARY.get() == null) {
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!isUsable(replica)) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    // stays out of rotation until the next lag check reaches it again
+                    replica.reachable = false;
+                    log.warn("Replica {} refused a connection, reading from the next one: {}",
+                        replica.dataSource.getPoolName(), e.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica pools use their configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${aviascanner.datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = isUsable(replica);
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagMillis = resultSet.getLong(1);
+                replica.streaming = resultSet.getBoolean(2);
+                replica.reachable = true;
+            } catch (SQLException e) {
+                replica.reachable = false;
+                log.debug("Lag check failed on replica {}", replica.dataSource.getPoolName(), e);
+            }
+            boolean usable = isUsable(replica);
+            if (usable != wasUsable) {
+                log.info("Replica {} is {} (reachable: {}, streaming: {}, lag: {} ms)",
+                    replica.dataSource.getPoolName(), usable ? "back in rotation" : "out of rotation",
+                    replica.reachable, replica.streaming, replica.lagMillis);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private boolean isUsable(Replica replica) {
+        return replica.reachable && replica.streaming && replica.lagMillis <= maxLagMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aviaScanner.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+// Hibernate logs every statement slower than LOG_QUERIES_SLOWER_THAN_MS on org.hibernate.SQL_SLOW,
+// which under load is a line per request once the database slows down. Every slow statement is
+// counted in aviascanner.jpa.slow.queries and only sample-percent of them are written out.
+// Nothing injects it, so it opts out of lazy initialization (prod profile) to get installed at all.
+@Component
+@Lazy(false)
+public class SlowQueryLogSampler extends TurboFilter implements InitializingBean, DisposableBean {
+    static final String LOGGER_NAME = "org.hibernate.SQL_SLOW";
+
+    private final LoggerContext loggerContext;
+    private final Logger slowQueryLogger;
+    private final Counter slowQueries;
+    private final int samplePercent;
+
+    public SlowQueryLogSampler(MeterRegistry meterRegistry,
+            @Value("${aviascanner.jpa.slow-query-log.sample-percent:10}") int samplePercent) {
+        this.loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        this.slowQueryLogger = loggerContext.getLogger(LOGGER_NAME);
+        this.samplePercent = samplePercent;
+        this.slowQueries = Counter.builder("aviascanner.jpa.slow.queries")
+            .description("Statements slower than the slow query threshold, logged or not")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        setName("slow-query-log-sampler");
+        start();
+        loggerContext.addTurboFilter(this);
+    }
+
+    // Runs for every logging call in the application, so anything but the slow query logger
+    // returns straight away. A null format is an isInfoEnabled() check, which must stay true.
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (logger != slowQueryLogger || format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        slowQueries.increment();
+        return ThreadLocalRandom.current().nextInt(100) < samplePercent ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void destroy() {
+        loggerContext.getTurboFilterList().remove(this);
+        stop();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.aviaScanner.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.DTO.CredentialsDTO;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.service.UserEntityService;
+import jakarta.validation.Valid;
+
+// register and login are open; changing a role is a write and therefore needs an ADMIN token.
+// Served by both the servlet and the reactive stack, so it takes no servlet request.
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+    private final UserEntityService userEntityService;
+
+    public AuthController(UserEntityService userEntityService) {
+        this.userEntityService = userEntityService;
+    }
+
+    @PostMapping("/register")
+    public ResponseEntity<?> register(@Valid @RequestBody CredentialsDTO credentials) {
+        return userEntityService.register(credentials)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorResponse.of(HttpStatus.CONFLICT,
+                "Account with this email already exists", "/api/auth/register")));
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@Valid @RequestBody CredentialsDTO credentials) {
+        return userEntityService.login(credentials)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, UserEntityService.TOKEN_TYPE)
+                .body(ErrorResponse.of(HttpStatus.UNAUTHORIZED, "Invalid email or password", "/api/auth/login")));
+    }
+
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<?> updateRole(@PathVariable Long id, @RequestParam UserRole role) {
+        if (!userEntityService.updateRole(id, role)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.of(HttpStatus.NOT_FOUND, "Account not found", "/api/auth/users/" + id + "/role"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.aviaScanner.controller;
+
+import java.net.URI;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPatchDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPageDTO;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.service.AviaScanerUserReactiveService;
+import com.example.aviaScanner.utils.ETags;
+import com.example.aviaScanner.exception.ApiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.RequestHeader;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same paths and DTO contract as aviaScannerUserController, served by WebFlux when the
+// "reactive" profile is active.
+@RestController
+@Validated
+@Profile("reactive")
+@RequestMapping("/api")
+public class AviaScannerUserReactiveController {
+    private final AviaScanerUserReactiveService aviaScanerUserReactiveService;
+
+    public AviaScannerUserReactiveController(AviaScanerUserReactiveService aviaScanerUserReactiveService) {
+        this.aviaScanerUserReactiveService = aviaScanerUserReactiveService;
+    }
+
+    @GetMapping("/users")
+    public Mono<AviaScannerUserPageDTO> getUsers(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return aviaScanerUserReactiveService.getUsersPage(after, limit);
+    }
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AviaScannerUserDTO> streamUsers() {
+        return aviaScanerUserReactiveService.streamAllUsers();
+    }
+
+    @GetMapping(value = "/users", params = "email")
+    public Mono<ResponseEntity<?>> getUserByEmail(@RequestParam String email) {
+        return aviaScanerUserReactiveService.getUserByEmail(email)
+            .<ResponseEntity<?>>map(AviaScannerUserReactiveController::ok)
+            .defaultIfEmpty(notFound("/api/users"));
+    }
+
+    @GetMapping("/users/search")
+    public Flux<AviaScannerUserDTO> searchUsers(
+            @RequestParam @NotBlank @Size(min = 2, max = 100) String q,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return aviaScanerUserReactiveService.searchUsers(q, limit);
+    }
+
+    @PostMapping("/users")
+    public Mono<ResponseEntity<?>> createUser(@Valid @RequestBody AviaScannerUserDTO userDTO, ServerHttpRequest request) {
+        return aviaScanerUserReactiveService.createUser(userDTO)
+            .map(result -> result.isCreated()
+                ? ok(result.user())
+                : ResponseEntity.status(HttpStatus.CONFLICT)
+                    .location(URI.create("/api/users/" + result.existingId()))
+                    .body(ErrorResponse.duplicateEmail(result.existingId(), request.getPath().value())));
+    }
+
+    @GetMapping("/users/{id}")
+    public Mono<ResponseEntity<?>> getUserById(@PathVariable Long id) {
+        return aviaScanerUserReactiveService.getUserById(id)
+            .<ResponseEntity<?>>map(AviaScannerUserReactiveController::ok)
+            .defaultIfEmpty(notFound("/api/users/" + id));
+    }
+
+    @DeleteMapping("/users/{id}")
+    public Mono<ResponseEntity<?>> deleteUser(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return aviaScanerUserReactiveService.deleteUser(id, ETags.expectedVersion(ifMatch))
+            .map(deleted -> deleted ? ResponseEntity.ok("User is deleted") : notFound("/api/users/" + id));
+    }
+
+    @PatchMapping(value = "/users/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public Mono<ResponseEntity<?>> partialUpdateUser(@PathVariable Long id, @RequestBody AviaScannerUserPatchDTO patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return aviaScanerUserReactiveService.updateUser(id, patch, ETags.expectedVersion(ifMatch))
+            .map(updated -> updated.<ResponseEntity<?>>map(AviaScannerUserReactiveController::ok)
+                .orElseGet(() -> notFound("/api/users/" + id)));
+    }
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException ex, ServerHttpRequest request) {
+        return ResponseEntity.status(ex.getStatus())
+            .body(ErrorResponse.of(ex.getStatus(), ex.getMessage(), request.getPath().value()));
+    }
+
+    @ExceptionHandler({WebExchangeBindException.class, ConstraintViolationException.class})
+    public ResponseEntity<ErrorResponse> handleValidation(Exception ex, ServerHttpRequest request) {
+        return ResponseEntity.badRequest().body(ErrorResponse.of(HttpStatus.BAD_REQUEST,
+            "Validation failed: " + ex.getMessage(), request.getPath().value()));
+    }
+
+    private static ResponseEntity<?> ok(AviaScannerUserDTO user) {
+        return ResponseEntity.ok().eTag(ETags.of(user)).body(user);
+    }
+
+    private static ResponseEntity<?> notFound(String path) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.notFound(path));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.aviaScanner.controller;
+
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.aviaScanner.DTO.BirthYearStatsDTO;
+import com.example.aviaScanner.DTO.LocationStatsDTO;
+import com.example.aviaScanner.service.AviaScanerUserStatsService;
+
+@RestController
+@RequestMapping("/api/users/stats")
+public class AviaScannerUserStatsController {
+    private final AviaScanerUserStatsService aviaScanerUserStatsService;
+
+    public AviaScannerUserStatsController(AviaScanerUserStatsService aviaScanerUserStatsService) {
+        this.aviaScanerUserStatsService = aviaScanerUserStatsService;
+    }
+
+    @GetMapping("/locations")
+    public ResponseEntity<List<LocationStatsDTO>> getLocationStats() {
+        return ResponseEntity.ok(aviaScanerUserStatsService.getLocationStats());
+    }
+
+    @GetMapping("/birth-years")
+    public ResponseEntity<List<BirthYearStatsDTO>> getBirthYearStats() {
+        return ResponseEntity.ok(aviaScanerUserStatsService.getBirthYearStats());
+    }
+}
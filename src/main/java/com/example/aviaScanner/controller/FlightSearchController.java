@@ -0,0 +1,132 @@
+package com.example.aviaScanner.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.example.aviaScanner.DTO.CheapestFareDTO;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import com.example.aviaScanner.exception.InvalidRequestException;
+import com.example.aviaScanner.exception.UserNotFoundException;
+import com.example.aviaScanner.service.AviaScanerUserSevice;
+import com.example.aviaScanner.service.FlightSearchQuery;
+import com.example.aviaScanner.service.FareCacheService;
+import com.example.aviaScanner.service.HomeAirportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.extern.slf4j.Slf4j;
+
+// Without an origin the search starts at the home airport of the user given by userId, looked up
+// from the user's location by HomeAirportService.
+@Slf4j
+@RestController
+@Validated
+@Profile("!reactive")
+@RequestMapping("/api/flights")
+public class FlightSearchController {
+    private static final Pattern AIRPORT_CODE = Pattern.compile("[A-Z]{3}");
+
+    private final FareCacheService fareCacheService;
+    private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final HomeAirportService homeAirportService;
+    private final long streamTimeoutMillis;
+
+    public FlightSearchController(FareCacheService fareCacheService, AviaScanerUserSevice aviaScanerUserSevice,
+            HomeAirportService homeAirportService,
+            @Value("${aviascanner.flights.provider-timeout-ms:2000}") long providerTimeoutMillis) {
+        this.fareCacheService = fareCacheService;
+        this.aviaScanerUserSevice = aviaScanerUserSevice;
+        this.homeAirportService = homeAirportService;
+        this.streamTimeoutMillis = providerTimeoutMillis * 2;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<FlightSearchResultDTO> search(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) Long userId,
+            @RequestParam @NotBlank String destination,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") @Min(1) @Max(9) int passengers,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        FlightSearchQuery query = query(origin, userId, destination, date, passengers);
+        return ResponseEntity.ok(fareCacheService.search(query, limit));
+    }
+
+    // Server-sent events: an "offers" event per provider as it answers, then the merged "result".
+    // A cached search sends only the "result".
+    @GetMapping(value = "/search", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSearch(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) Long userId,
+            @RequestParam @NotBlank String destination,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") @Min(1) @Max(9) int passengers,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        FlightSearchQuery query = query(origin, userId, destination, date, passengers);
+        fareCacheService.requireProviders();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Thread.ofVirtual().name("flight-search-stream").start(() -> {
+            try {
+                FlightSearchResultDTO result = fareCacheService.search(query, limit, partial -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("offers").data(partial, MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                emitter.send(SseEmitter.event().name("result").data(result, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Flight search stream ended early", e);
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // Cheapest fare per destination seen by recent searches from origin, or from the user's location.
+    @GetMapping("/cheapest")
+    public ResponseEntity<List<CheapestFareDTO>> cheapest(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(500) int limit) {
+        return ResponseEntity.ok(fareCacheService.cheapestFrom(origin(origin, userId), limit));
+    }
+
+    private FlightSearchQuery query(String origin, Long userId, String destination, LocalDate date, int passengers) {
+        return new FlightSearchQuery(origin(origin, userId), airportCode("destination", destination), date, passengers);
+    }
+
+    private String origin(String origin, Long userId) {
+        if (origin != null) {
+            return airportCode("origin", origin);
+        }
+        if (userId == null) {
+            throw new InvalidRequestException("origin or userId is required");
+        }
+        return homeAirportService.homeAirport(aviaScanerUserSevice.getUserById(userId)
+            .orElseThrow(UserNotFoundException::new));
+    }
+
+    static String airportCode(String parameter, String value) {
+        String code = value.trim().toUpperCase(Locale.ROOT);
+        if (!AIRPORT_CODE.matcher(code).matches()) {
+            throw new InvalidRequestException(parameter + " must be a three-letter airport code, got '" + value + "'");
+        }
+        return code;
+    }
+}
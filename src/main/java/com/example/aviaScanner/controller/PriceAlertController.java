@@ -0,0 +1,91 @@
+package com.example.aviaScanner.controller;
+
+import java.util.List;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.config.AuthenticationFilter;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.DTO.PriceAlertDTO;
+import com.example.aviaScanner.exception.UserNotFoundException;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.service.AviaScanerUserSevice;
+import com.example.aviaScanner.service.HomeAirportService;
+import com.example.aviaScanner.service.PriceAlertService;
+import com.example.aviaScanner.service.UserEntityService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+// A user's price alerts. Without an origin an alert watches flights from the user's home airport.
+// With authentication on, only an admin or the account registered with the user's email may
+// manage them; anyone else gets the same 404 as for an unknown user.
+@RestController
+@Validated
+@Profile("!reactive")
+@RequestMapping("/api/users/{userId}/price-alerts")
+public class PriceAlertController {
+    private final PriceAlertService priceAlertService;
+    private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final UserEntityService userEntityService;
+    private final HomeAirportService homeAirportService;
+
+    public PriceAlertController(PriceAlertService priceAlertService, AviaScanerUserSevice aviaScanerUserSevice,
+            UserEntityService userEntityService, HomeAirportService homeAirportService) {
+        this.priceAlertService = priceAlertService;
+        this.aviaScanerUserSevice = aviaScanerUserSevice;
+        this.userEntityService = userEntityService;
+        this.homeAirportService = homeAirportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<PriceAlertDTO> createAlert(@PathVariable Long userId, @Valid @RequestBody PriceAlertDTO alert,
+            HttpServletRequest request) {
+        AviaScannerUserDTO user = ownedUser(userId, request);
+        alert.setOrigin(alert.getOrigin() != null
+            ? FlightSearchController.airportCode("origin", alert.getOrigin())
+            : homeAirportService.homeAirport(user));
+        alert.setDestination(FlightSearchController.airportCode("destination", alert.getDestination()));
+        return ResponseEntity.ok(priceAlertService.create(userId, alert));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceAlertDTO>> getAlerts(@PathVariable Long userId, HttpServletRequest request) {
+        ownedUser(userId, request);
+        return ResponseEntity.ok(priceAlertService.getAlerts(userId));
+    }
+
+    @DeleteMapping("/{alertId}")
+    public ResponseEntity<?> cancelAlert(@PathVariable Long userId, @PathVariable Long alertId,
+            HttpServletRequest request) {
+        ownedUser(userId, request);
+        if (!priceAlertService.cancel(userId, alertId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.of(HttpStatus.NOT_FOUND, "Price alert not found", request.getRequestURI()));
+        }
+        return ResponseEntity.ok("Price alert is deleted");
+    }
+
+    private AviaScannerUserDTO ownedUser(Long userId, HttpServletRequest request) {
+        AviaScannerUserDTO user = aviaScanerUserSevice.getUserById(userId).orElseThrow(UserNotFoundException::new);
+        Object accountId = request.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (accountId == null || request.getAttribute(AuthenticationFilter.ROLE_ATTRIBUTE) == UserRole.ADMIN) {
+            return user;
+        }
+        boolean owner = userEntityService.findEmail((Long) accountId)
+            .filter(email -> email.equalsIgnoreCase(user.getEmail()))
+            .isPresent();
+        if (!owner) {
+            throw new UserNotFoundException();
+        }
+        return user;
+    }
+}
@@ -1,106 +1,211 @@
 package com.example.aviaScanner.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import com.example.aviaScanner.service.AviaScanerUserSevice;
-import com.example.aviaScanner.model.AviaScanerUserEntity;
+import com.example.aviaScanner.service.AviaScanerUserImportService;
+import com.example.aviaScanner.service.AviaScanerUserCreateResult;
+import java.net.URI;
+import com.example.aviaScanner.service.AviaScanerUserAuditService;
+import com.example.aviaScanner.service.AviaScanerUserChangeFeedService;
+import com.example.aviaScanner.DTO.AviaScannerUserChangesDTO;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.example.aviaScanner.DTO.AviaScannerUserAuditDTO;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.DeleteMapping;  
 import org.springframework.web.bind.annotation.PatchMapping;
-import java.util.Map;
+import java.util.Optional;
 import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPatchDTO;
 import org.springframework.validation.annotation.Validated;
 import jakarta.validation.Valid;
-import java.time.LocalDateTime;
+import jakarta.servlet.http.HttpServletRequest;
+import com.example.aviaScanner.utils.ETags;
 import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.DTO.AviaScannerUserPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import com.example.aviaScanner.DTO.AviaScannerUserBatchDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserBatchGetRequestDTO;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.io.InputStream;
+import com.example.aviaScanner.DTO.BulkImportResultDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @RestController
 @Validated
+@Profile("!reactive")
 @RequestMapping("/api")
 public class aviaScannerUserController {
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final AviaScanerUserImportService aviaScanerUserImportService;
+    private final AviaScanerUserAuditService aviaScanerUserAuditService;
+    private final AviaScanerUserChangeFeedService aviaScanerUserChangeFeedService;
+    private final ObjectWriter userWriter;
 
-    public aviaScannerUserController(AviaScanerUserSevice aviaScanerUserSevice) {
+    public aviaScannerUserController(AviaScanerUserSevice aviaScanerUserSevice,
+            AviaScanerUserImportService aviaScanerUserImportService,
+            AviaScanerUserAuditService aviaScanerUserAuditService,
+            AviaScanerUserChangeFeedService aviaScanerUserChangeFeedService, ObjectMapper objectMapper) {
         this.aviaScanerUserSevice = aviaScanerUserSevice;
+        this.aviaScanerUserImportService = aviaScanerUserImportService;
+        this.aviaScanerUserAuditService = aviaScanerUserAuditService;
+        this.aviaScanerUserChangeFeedService = aviaScanerUserChangeFeedService;
+        this.userWriter = objectMapper.writerFor(AviaScannerUserDTO.class)
+            .withRootValueSeparator("\n")
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/users")
-    public ResponseEntity<List<AviaScanerUserEntity>> getUsers() {
-        return ResponseEntity.ok(aviaScanerUserSevice.getAllUsers());
+    public ResponseEntity<AviaScannerUserPageDTO> getUsers(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return ResponseEntity.ok(aviaScanerUserSevice.getUsersPage(after, limit));
+    }
+
+    @GetMapping("/users/search")
+    public ResponseEntity<List<AviaScannerUserDTO>> searchUsers(
+            @RequestParam @NotBlank @Size(min = 2, max = 100) String q,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(aviaScanerUserSevice.searchUsers(q, limit));
+    }
+
+    // Long-poll: waits up to waitMs for changes after since instead of returning an empty page.
+    @GetMapping("/users/changes")
+    public DeferredResult<AviaScannerUserChangesDTO> getUserChanges(
+            @RequestParam(defaultValue = "0") @Min(0) long since,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit,
+            @RequestParam(defaultValue = "30000") @Min(0) @Max(60000) long waitMs) {
+        return aviaScanerUserChangeFeedService.pollChanges(since, limit, waitMs);
+    }
+
+    @PostMapping("/users/batch-get")
+    public ResponseEntity<AviaScannerUserBatchDTO> batchGetUsers(
+            @Valid @RequestBody AviaScannerUserBatchGetRequestDTO request) {
+        return ResponseEntity.ok(aviaScanerUserSevice.getUsersByIds(request.getIds()));
+    }
+
+    @GetMapping(value = "/users", params = "ids")
+    public ResponseEntity<AviaScannerUserBatchDTO> getUsersByIds(
+            @RequestParam @NotEmpty @Size(max = AviaScannerUserBatchGetRequestDTO.MAX_IDS) List<Long> ids) {
+        return ResponseEntity.ok(aviaScanerUserSevice.getUsersByIds(ids));
+    }
+
+    @GetMapping(value = "/users", params = "email")
+    public ResponseEntity<?> getUserByEmail(@RequestParam String email, HttpServletRequest request) {
+        return okOrNotFound(aviaScanerUserSevice.getUserByEmail(email), request);
+    }
+
+    @GetMapping(value = "/users", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = userWriter.writeValues(out)) {
+                aviaScanerUserSevice.streamAllUsers(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+            .body(body);
     }
 
     @PostMapping("/users")
-    public ResponseEntity<AviaScannerUserDTO> createUser(@Valid @RequestBody AviaScannerUserDTO userDTO) {
-        try {
-            return ResponseEntity.ok(aviaScanerUserSevice.createUser(userDTO));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> createUser(@Valid @RequestBody AviaScannerUserDTO userDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) @Size(min = 1, max = 255) String idempotencyKey,
+            HttpServletRequest request) {
+        AviaScanerUserCreateResult result = aviaScanerUserSevice.createUser(userDTO, idempotencyKey);
+        ResponseEntity.BodyBuilder response = result.isCreated()
+            ? ResponseEntity.ok()
+            : ResponseEntity.status(HttpStatus.CONFLICT).location(URI.create("/api/users/" + result.existingId()));
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        if (!result.isCreated()) {
+            return response.body(ErrorResponse.duplicateEmail(result.existingId(), request.getRequestURI()));
         }
+        // replayed bodies come from the stored response and carry no version
+        if (result.user().getVersion() != null) {
+            response.eTag(ETags.of(result.user()));
+        }
+        return response.body(result.user());
+    }
+
+    @PostMapping(value = "/users/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportResultDTO> bulkCreateUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(aviaScanerUserImportService.importUsers(body, contentType));
     }
 
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id){
-        try{
-            if(aviaScanerUserSevice.getUserById(id) == null){
-                throw new Exception("User not found");
-            }
-            return ResponseEntity.ok(aviaScanerUserSevice.getUserById(id));
-        } catch (Exception e){
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now());
-            errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
-            errorResponse.setError("Not Found");
-            errorResponse.setMessage("User not found");
-            errorResponse.setPath("/api/users/" + id);
-            
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(errorResponse);
-        }
+    public ResponseEntity<?> getUserById(@PathVariable Long id, HttpServletRequest request){
+        return okOrNotFound(aviaScanerUserSevice.getUserById(id), request);
+    }
+
+    // Audit rows are written asynchronously, so the latest change may show up with a short delay.
+    @GetMapping("/users/{id}/history")
+    public ResponseEntity<List<AviaScannerUserAuditDTO>> getUserHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(aviaScanerUserAuditService.getHistory(id));
     }
 
     @DeleteMapping("/users/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long id){
-        try{
-            if(aviaScanerUserSevice.getUserById(id) == null){
-                throw new Exception("User not found");
-            }
-            aviaScanerUserSevice.deleteUser(id);
-            return ResponseEntity.ok("User is deleted");
-        } catch (Exception e){
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now());
-            errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
-            errorResponse.setError("Not Found");
-            errorResponse.setMessage("User not found");
-            errorResponse.setPath("/api/users/" + id);
-            
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(errorResponse);
+    public ResponseEntity<?> deleteUser(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            HttpServletRequest request){
+        if (!aviaScanerUserSevice.deleteUser(id, ETags.expectedVersion(ifMatch))) {
+            return notFound(request.getRequestURI());
         }
+        return ResponseEntity.ok("User is deleted");
     }
 
-    @PatchMapping("/users/{id}")
-    public ResponseEntity<?> partialUpdateUser(@PathVariable Long id, @Valid @RequestBody Map<String, Object> updates) {
-        try {
-            if(aviaScanerUserSevice.getUserById(id) == null){
-                throw new Exception("User not found");
-            }
-            return ResponseEntity.ok(aviaScanerUserSevice.updateUser(id, updates));
-        } catch (Exception e) {
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now());
-            errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
-            errorResponse.setError("Not Found");
-            errorResponse.setMessage("User not found");
-            errorResponse.setPath("/api/users/" + id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(errorResponse);
+    @PatchMapping(value = "/users/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_VALUE})
+    public ResponseEntity<?> partialUpdateUser(@PathVariable Long id, @RequestBody AviaScannerUserPatchDTO patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            HttpServletRequest request) {
+        return okOrNotFound(aviaScanerUserSevice.updateUser(id, patch, ETags.expectedVersion(ifMatch)), request);
+    }
+
+    // Unknown ids are a normal outcome, not an error: no exception is thrown and the path is
+    // the request URI the container already holds rather than a freshly concatenated string.
+    // For GETs a matching If-None-Match is answered with 304 before the body is serialized.
+    private static ResponseEntity<?> okOrNotFound(Optional<AviaScannerUserDTO> user, HttpServletRequest request) {
+        if (user.isPresent()) {
+            return ResponseEntity.ok().eTag(ETags.of(user.get())).body(user.get());
         }
+        return notFound(request.getRequestURI());
+    }
+
+    static ResponseEntity<ErrorResponse> notFound(String path) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.notFound(path));
     }
-}
\ No newline at end of file
+}
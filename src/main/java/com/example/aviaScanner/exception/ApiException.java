@@ -0,0 +1,20 @@
+package com.example.aviaScanner.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base for errors that map to a specific HTTP status in GlobalExceptionHandler.
+ * They describe client mistakes, so no stack trace is captured.
+ */
+public abstract class ApiException extends RuntimeException {
+    private final HttpStatus status;
+
+    protected ApiException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.aviaScanner.exception;
+
+import org.springframework.http.HttpStatus;
+
+// No FareProvider is registered, so a search could only come back empty.
+public class FlightSearchUnavailableException extends ApiException {
+    public FlightSearchUnavailableException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Flight search has no fare providers configured");
+    }
+}
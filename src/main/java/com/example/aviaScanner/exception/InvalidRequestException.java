@@ -0,0 +1,9 @@
+package com.example.aviaScanner.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends ApiException {
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, "Validation failed: " + message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.aviaScanner.exception;
+
+import org.springframework.http.HttpStatus;
+
+// The If-Match version no longer matches: the user was changed since the client read it.
+public class PreconditionFailedException extends ApiException {
+    public PreconditionFailedException() {
+        super(HttpStatus.PRECONDITION_FAILED, "User was modified by another request");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.aviaScanner.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Request handlers return an empty Optional for unknown ids; this is for code paths
+// that cannot carry one back to the controller.
+public class UserNotFoundException extends ApiException {
+    public UserNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "User not found");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.aviaScanner.model;
+
+public enum AviaScanerUserAuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,46 @@
+package com.example.aviaScanner.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Append-only: rows are inserted by the audit writer and never updated.
+@Entity
+@Table(name = "app_scanner_user_audit", indexes = @Index(name = "app_scanner_user_audit_user_idx", columnList = "user_id, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AviaScanerUserAuditEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_scanner_user_audit_seq")
+    @SequenceGenerator(name = "app_scanner_user_audit_seq", sequenceName = "app_scanner_user_audit_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AviaScanerUserAuditAction action;
+
+    @Column(columnDefinition = "text")
+    private String changes;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
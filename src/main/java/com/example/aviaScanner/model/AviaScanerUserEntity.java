@@ -4,9 +4,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
+import jakarta.persistence.Version;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import lombok.Data;
 import lombok.Builder;
@@ -18,6 +21,7 @@ import lombok.AllArgsConstructor;
 
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "app_scanner_user")
 @Getter
 @Setter
@@ -26,7 +30,8 @@ import lombok.AllArgsConstructor;
 @Builder
 public class AviaScanerUserEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_scanner_user_seq")
+    @SequenceGenerator(name = "app_scanner_user_seq", sequenceName = "app_scanner_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -45,4 +50,8 @@ public class AviaScanerUserEntity {
     @DateTimeFormat(pattern = "dd.MM.yyyy")
     @JsonFormat(pattern = "dd.MM.yyyy")
     private LocalDate birthDate;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,46 @@
+package com.example.aviaScanner.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Deleted when it fires or is cancelled; never updated.
+@Entity
+@Table(name = "price_alert")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceAlertEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_alert_seq")
+    @SequenceGenerator(name = "price_alert_seq", sequenceName = "price_alert_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 3)
+    private String origin;
+
+    @Column(nullable = false, length = 3)
+    private String destination;
+
+    @Column(name = "max_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,6 @@
+package com.example.aviaScanner.model;
+
+public enum UserRole {
+    USER,
+    ADMIN
+}
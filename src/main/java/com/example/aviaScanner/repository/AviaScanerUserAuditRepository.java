@@ -0,0 +1,11 @@
+package com.example.aviaScanner.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.example.aviaScanner.model.AviaScanerUserAuditEntity;
+
+@Repository
+public interface AviaScanerUserAuditRepository extends JpaRepository<AviaScanerUserAuditEntity, Long> {
+    List<AviaScanerUserAuditEntity> findAllByUserIdOrderByIdAsc(Long userId);
+}
@@ -0,0 +1,40 @@
+package com.example.aviaScanner.repository;
+
+import java.util.Optional;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+// Idempotency-Key records for user creation; the table is created by the Flyway migrations.
+public interface AviaScanerUserIdempotencyRepository extends Repository<AviaScanerUserEntity, Long> {
+
+    interface StoredResult {
+        String getFingerprint();
+        String getOutcome();
+        Long getUserId();
+        String getResponseBody();
+    }
+
+    // Returns 0 when the key is already taken; a concurrent first attempt makes this wait for its commit.
+    @Modifying
+    @Query(value = "INSERT INTO app_scanner_user_idempotency (idempotency_key, fingerprint) "
+        + "VALUES (:key, :fingerprint) ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint);
+
+    @Query(value = "SELECT fingerprint, outcome, user_id AS userId, response_body AS responseBody "
+        + "FROM app_scanner_user_idempotency WHERE idempotency_key = :key", nativeQuery = true)
+    Optional<StoredResult> findByKey(@Param("key") String key);
+
+    @Modifying
+    @Query(value = "UPDATE app_scanner_user_idempotency SET outcome = :outcome, user_id = :userId, "
+        + "response_body = :responseBody WHERE idempotency_key = :key", nativeQuery = true)
+    void complete(@Param("key") String key, @Param("outcome") String outcome,
+        @Param("userId") Long userId, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query(value = "DELETE FROM app_scanner_user_idempotency "
+        + "WHERE created_at < now() - make_interval(hours => :hours)", nativeQuery = true)
+    int purgeOlderThan(@Param("hours") int hours);
+}
@@ -0,0 +1,59 @@
+package com.example.aviaScanner.repository;
+
+import java.util.List;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+// The outbox table is created by the Flyway migrations and written with plain SQL, so it is not an entity.
+public interface AviaScanerUserOutboxRepository extends Repository<AviaScanerUserEntity, Long> {
+
+    interface Change {
+        long getSeq();
+        long getUserId();
+        String getChangeType();
+        long getChangedAtMillis();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO app_scanner_user_outbox (user_id, change_type) VALUES (:userId, :changeType)",
+        nativeQuery = true)
+    void insert(@Param("userId") Long userId, @Param("changeType") String changeType);
+
+    @Modifying
+    @Query(value = "INSERT INTO app_scanner_user_outbox (user_id, change_type) "
+        + "SELECT unnest(:userIds), :changeType", nativeQuery = true)
+    void insertAll(@Param("userIds") Long[] userIds, @Param("changeType") String changeType);
+
+    // Transaction-scoped, so the lock is released by the relay's own commit or rollback.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(@Param("key") long key);
+
+    // Numbers committed rows right after the current maximum; only the lock holder runs this,
+    // so the feed has no gaps and a consumer never sees a lower seq appear later.
+    @Modifying
+    @Query(value = "WITH pending AS ("
+        + "SELECT id, row_number() OVER (ORDER BY id) AS rn FROM app_scanner_user_outbox "
+        + "WHERE change_seq IS NULL ORDER BY id LIMIT :limit), "
+        + "base AS (SELECT coalesce(max(change_seq), 0) AS seq FROM app_scanner_user_outbox) "
+        + "UPDATE app_scanner_user_outbox o SET change_seq = base.seq + pending.rn "
+        + "FROM pending, base WHERE o.id = pending.id", nativeQuery = true)
+    int assignSequence(@Param("limit") int limit);
+
+    @Query(value = "SELECT coalesce(max(change_seq), 0) FROM app_scanner_user_outbox", nativeQuery = true)
+    long findLatestSeq();
+
+    @Query(value = "SELECT change_seq AS seq, user_id AS userId, change_type AS changeType, "
+        + "CAST(extract(epoch FROM created_at) * 1000 AS bigint) AS changedAtMillis "
+        + "FROM app_scanner_user_outbox WHERE change_seq > :since ORDER BY change_seq LIMIT :limit",
+        nativeQuery = true)
+    List<Change> findChangesAfter(@Param("since") long since, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM app_scanner_user_outbox WHERE change_seq IS NOT NULL "
+        + "AND change_seq < :keepFrom AND created_at < now() - make_interval(days => :retentionDays)",
+        nativeQuery = true)
+    int purge(@Param("keepFrom") long keepFrom, @Param("retentionDays") int retentionDays);
+}
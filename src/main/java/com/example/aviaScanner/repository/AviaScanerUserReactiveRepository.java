@@ -0,0 +1,74 @@
+package com.example.aviaScanner.repository;
+
+import java.time.LocalDate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads of app_scanner_user for the reactive profile; writes still go
+// through the JPA repository.
+@Repository
+@Profile("reactive")
+public class AviaScanerUserReactiveRepository {
+    private static final String SELECT = "SELECT id, name, email, phone, location, birth_date, version FROM app_scanner_user ";
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public AviaScanerUserReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<AviaScannerUserDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + "WHERE id = :id")
+            .bind("id", id)
+            .map((row, metadata) -> toDTO(row))
+            .one();
+    }
+
+    public Mono<AviaScannerUserDTO> findByEmail(String email) {
+        return databaseClient.sql(SELECT + "WHERE email = :email")
+            .bind("email", email)
+            .map((row, metadata) -> toDTO(row))
+            .one();
+    }
+
+    public Flux<AviaScannerUserDTO> findPage(Long after, int limit) {
+        return databaseClient.sql(SELECT + "WHERE id > :after ORDER BY id LIMIT :limit")
+            .bind("after", after)
+            .bind("limit", limit)
+            .map((row, metadata) -> toDTO(row))
+            .all();
+    }
+
+    public Flux<AviaScannerUserDTO> streamAll() {
+        return databaseClient.sql(SELECT + "ORDER BY id")
+            .filter((statement, next) -> next.execute(statement.fetchSize(STREAM_FETCH_SIZE)))
+            .map((row, metadata) -> toDTO(row))
+            .all();
+    }
+
+    public Flux<AviaScannerUserDTO> search(String q, int limit) {
+        return databaseClient.sql(AviaScanerUserRepository.SEARCH_SQL)
+            .bind("q", q)
+            .bind("limit", limit)
+            .map((row, metadata) -> toDTO(row))
+            .all();
+    }
+
+    private static AviaScannerUserDTO toDTO(Row row) {
+        return AviaScannerUserDTO.builder()
+            .id(row.get("id", Long.class))
+            .name(row.get("name", String.class))
+            .email(row.get("email", String.class))
+            .phone(row.get("phone", String.class))
+            .location(row.get("location", String.class))
+            .birthDate(row.get("birth_date", LocalDate.class))
+            .version(row.get("version", Long.class))
+            .build();
+    }
+}
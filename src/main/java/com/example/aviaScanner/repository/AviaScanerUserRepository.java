@@ -2,14 +2,50 @@ package com.example.aviaScanner.repository;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 import com.example.aviaScanner.model.AviaScanerUserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Repository
-public interface AviaScanerUserRepository extends JpaRepository<AviaScanerUserEntity, Long> {
+public interface AviaScanerUserRepository extends JpaRepository<AviaScanerUserEntity, Long>, AviaScanerUserRepositoryCustom {
+    // Word-similarity match on the generated search_text column, ordered by trigram
+    // distance so the GiST index can return the top rows without sorting all matches.
+    String SEARCH_SQL = "SELECT id, name, email, phone, location, birth_date, version FROM app_scanner_user "
+        + "WHERE :q <% search_text ORDER BY :q <<-> search_text LIMIT :limit";
+
+    // findById, findByEmail and findAllByIdArray fill the user caches, so they read the primary:
+    // a user a lagging replica has not seen yet would otherwise be cached as missing
+    @Transactional
     Optional<AviaScanerUserEntity> findById(Long id);
     List<AviaScanerUserEntity> findAllByName(String name);
+    @Transactional
+    Optional<AviaScanerUserEntity> findByEmail(String email);
+
+    List<AviaScanerUserEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u from AviaScanerUserEntity u order by u.id")
+    Stream<AviaScanerUserEntity> streamAllOrderById();
+
+    // One array parameter instead of an IN list keeps a single cached plan for any batch size.
+    @Transactional
+    @Query(value = "SELECT id, name, email, phone, location, birth_date, version FROM app_scanner_user "
+        + "WHERE id = ANY(:ids)", nativeQuery = true)
+    List<AviaScanerUserEntity> findAllByIdArray(@Param("ids") Long[] ids);
+
+    @Query(value = SEARCH_SQL, nativeQuery = true)
+    List<AviaScanerUserEntity> search(@Param("q") String q, @Param("limit") int limit);
+
+    @Query("select u.id from AviaScanerUserEntity u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
 }
 
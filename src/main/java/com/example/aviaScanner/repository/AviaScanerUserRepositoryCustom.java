@@ -0,0 +1,38 @@
+package com.example.aviaScanner.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+
+public interface AviaScanerUserRepositoryCustom {
+    /**
+     * Inserts the user with {@code ON CONFLICT (email) DO NOTHING} and records a
+     * CREATE row in the change outbox in the same statement. An empty result
+     * means the email is already taken; no exception is raised and the
+     * surrounding transaction stays usable.
+     */
+    Optional<AviaScanerUserEntity> insertIfEmailAbsent(AviaScanerUserEntity user);
+
+    /**
+     * Batch form of {@link #insertIfEmailAbsent}: one {@code INSERT ... ON CONFLICT (email) DO
+     * NOTHING RETURNING} statement for all users, which also records their CREATE outbox rows.
+     * Returns the rows inserted; users whose email is already taken are left out.
+     */
+    List<AviaScanerUserEntity> insertAllIfEmailAbsent(List<AviaScanerUserEntity> users);
+
+    /**
+     * Updates only the given columns with a single {@code UPDATE ... RETURNING}
+     * statement that also records an UPDATE row in the change outbox; an empty
+     * result means no row matched. The version is always incremented; when
+     * {@code expectedVersion} is given, only a row still at that version matches.
+     */
+    Optional<AviaScanerUserEntity> patchById(Long id, Map<String, Object> columns, Long expectedVersion);
+
+    /**
+     * Deletes the row and records a DELETE row in the change outbox with a single
+     * statement, returning the email the user had, or an empty result when no
+     * row has this id (or, with {@code expectedVersion}, it is at another version).
+     */
+    Optional<String> deleteByIdReturningEmail(Long id, Long expectedVersion);
+}
@@ -0,0 +1,124 @@
+package com.example.aviaScanner.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class AviaScanerUserRepositoryCustomImpl implements AviaScanerUserRepositoryCustom {
+    private static final String RETURNING = " RETURNING id, name, email, phone, location, birth_date, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Ids come from the entity's own pooled generator rather than nextval() in the statement: the
+    // sequence steps by allocationSize, so a nextval() per row would spend a whole block on each
+    // user. The generator hands out the block it holds and fetches the next one every 50 ids.
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<AviaScanerUserEntity> insertIfEmailAbsent(AviaScanerUserEntity user) {
+        List<AviaScanerUserEntity> inserted = entityManager.createNativeQuery(
+                "WITH inserted AS (INSERT INTO app_scanner_user "
+                    + "(id, name, email, phone, location, birth_date, version) "
+                    + "VALUES (:id, :name, :email, :phone, :location, :birthDate, 0) "
+                    + "ON CONFLICT (email) DO NOTHING" + RETURNING + "), "
+                    + outboxInsert("inserted", "CREATE") + " SELECT * FROM inserted",
+                AviaScanerUserEntity.class)
+            .setParameter("id", nextId())
+            .setParameter("name", user.getName())
+            .setParameter("email", user.getEmail())
+            .setParameter("phone", user.getPhone())
+            .setParameter("location", user.getLocation())
+            .setParameter("birthDate", user.getBirthDate())
+            .getResultList();
+        return inserted.stream().findFirst();
+    }
+
+    // Columns are bound as arrays and unnested, so the statement text is the same for any batch size.
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AviaScanerUserEntity> insertAllIfEmailAbsent(List<AviaScanerUserEntity> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createNativeQuery(
+                "WITH inserted AS (INSERT INTO app_scanner_user "
+                    + "(id, name, email, phone, location, birth_date, version) "
+                    + "SELECT u.id, u.name, u.email, u.phone, u.location, "
+                    + "CAST(u.birth_date AS date), 0 "
+                    + "FROM unnest(:ids, :names, :emails, :phones, :locations, :birthDates) "
+                    + "AS u(id, name, email, phone, location, birth_date) "
+                    + "ON CONFLICT (email) DO NOTHING" + RETURNING + "), "
+                    + outboxInsert("inserted", "CREATE") + " SELECT * FROM inserted",
+                AviaScanerUserEntity.class)
+            .setParameter("ids", LongStream.range(0, users.size()).mapToObj(i -> nextId()).toArray(Long[]::new))
+            .setParameter("names", users.stream().map(AviaScanerUserEntity::getName).toArray(String[]::new))
+            .setParameter("emails", users.stream().map(AviaScanerUserEntity::getEmail).toArray(String[]::new))
+            .setParameter("phones", users.stream().map(AviaScanerUserEntity::getPhone).toArray(String[]::new))
+            .setParameter("locations", users.stream().map(AviaScanerUserEntity::getLocation).toArray(String[]::new))
+            .setParameter("birthDates", users.stream()
+                .map(user -> user.getBirthDate() == null ? null : user.getBirthDate().toString())
+                .toArray(String[]::new))
+            .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<AviaScanerUserEntity> patchById(Long id, Map<String, Object> columns, Long expectedVersion) {
+        // the outbox row is written by the same statement, so PATCH stays a single round trip
+        StringBuilder sql = new StringBuilder("WITH updated AS (UPDATE app_scanner_user SET ");
+        for (String column : columns.keySet()) {
+            sql.append(column).append(" = :").append(column).append(", ");
+        }
+        sql.append("version = version + 1 WHERE id = :id").append(versionCondition(expectedVersion)).append(RETURNING).append("), ")
+            .append(outboxInsert("updated", "UPDATE"))
+            .append(" SELECT * FROM updated");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), AviaScanerUserEntity.class)
+            .setParameter("id", id);
+        columns.forEach(query::setParameter);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        List<AviaScanerUserEntity> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<String> deleteByIdReturningEmail(Long id, Long expectedVersion) {
+        Query query = entityManager
+            .createNativeQuery("WITH deleted AS (DELETE FROM app_scanner_user WHERE id = :id"
+                + versionCondition(expectedVersion) + " RETURNING id, email), "
+                + outboxInsert("deleted", "DELETE") + " SELECT email FROM deleted")
+            .setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        List<String> deleted = query.getResultList();
+        return deleted.stream().findFirst();
+    }
+
+    private Long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+            .getEntityDescriptor(AviaScanerUserEntity.class).getGenerator();
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+
+    private static String versionCondition(Long expectedVersion) {
+        return expectedVersion == null ? "" : " AND version = :version";
+    }
+
+    private static String outboxInsert(String source, String changeType) {
+        return "outbox AS (INSERT INTO app_scanner_user_outbox (user_id, change_type) SELECT id, '"
+            + changeType + "' FROM " + source + ")";
+    }
+}
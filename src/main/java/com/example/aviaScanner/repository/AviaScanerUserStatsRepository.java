@@ -0,0 +1,43 @@
+package com.example.aviaScanner.repository;
+
+import java.util.List;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+// Reads the rollup materialized views created by the Flyway migrations; they are not mapped as
+// entities so that Hibernate schema validation leaves them alone.
+public interface AviaScanerUserStatsRepository extends Repository<AviaScanerUserEntity, Long> {
+
+    interface LocationCount {
+        String getLocation();
+        long getUserCount();
+    }
+
+    interface BirthYearCount {
+        int getBirthYear();
+        long getUserCount();
+    }
+
+    @Query(value = "SELECT location, user_count AS userCount FROM app_scanner_user_location_stats "
+        + "ORDER BY user_count DESC, location", nativeQuery = true)
+    List<LocationCount> findLocationCounts();
+
+    @Query(value = "SELECT birth_year AS birthYear, user_count AS userCount FROM app_scanner_user_birth_year_stats "
+        + "ORDER BY birth_year", nativeQuery = true)
+    List<BirthYearCount> findBirthYearCounts();
+
+    // Transaction-scoped, so the lock is released by the refresh's own commit or rollback.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRefreshLock(@Param("key") long key);
+
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY app_scanner_user_location_stats", nativeQuery = true)
+    void refreshLocationCounts();
+
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY app_scanner_user_birth_year_stats", nativeQuery = true)
+    void refreshBirthYearCounts();
+}
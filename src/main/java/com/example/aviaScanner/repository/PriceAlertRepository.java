@@ -0,0 +1,43 @@
+package com.example.aviaScanner.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.aviaScanner.model.PriceAlertEntity;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlertEntity, Long> {
+    // scalar projection, so streaming every alert does not fill the persistence context
+    interface AlertThreshold {
+        Long getId();
+        String getOrigin();
+        String getDestination();
+        BigDecimal getMaxPrice();
+    }
+
+    List<PriceAlertEntity> findAllByUserIdOrderByIdAsc(Long userId);
+
+    Optional<PriceAlertEntity> findByIdAndUserId(Long id, Long userId);
+
+    // Claims alerts that fired: only the rows this statement deleted come back, so an alert that
+    // another instance claimed or its user cancelled in the meantime is never notified twice.
+    @Transactional
+    @Query(value = "WITH claimed AS (DELETE FROM price_alert WHERE id = ANY(:ids) "
+        + "RETURNING id, user_id, origin, destination, max_price, created_at) SELECT * FROM claimed", nativeQuery = true)
+    List<PriceAlertEntity> deleteAllByIdReturning(@Param("ids") Long[] ids);
+
+    // route and threshold order, so every alert is appended at the end of its route in the index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select a.id as id, a.origin as origin, a.destination as destination, a.maxPrice as maxPrice "
+        + "from PriceAlertEntity a order by a.origin, a.destination, a.maxPrice, a.id")
+    Stream<AlertThreshold> streamAllByRoute();
+}
@@ -1,8 +1,37 @@
 package com.example.aviaScanner.repository;
 
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.aviaScanner.model.UserEntity;
+import com.example.aviaScanner.model.UserRole;
 
 @Repository
-public class UserEntityRepository {
-    
+public interface UserEntityRepository extends JpaRepository<UserEntity, Long> {
+    // read-write like findRoleById: a login right after registering must not miss on a lagging replica
+    @Transactional
+    Optional<UserEntity> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // read-write on purpose: authorization must not cache a role a lagging replica still has
+    @Transactional
+    @Query("SELECT u.role FROM UserEntity u WHERE u.id = :id")
+    Optional<UserRole> findRoleById(@Param("id") Long id);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.role = :role WHERE u.id = :id")
+    int updateRole(@Param("id") Long id, @Param("role") UserRole role);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.password = :hash WHERE u.id = :id AND u.password = :previousHash")
+    int updatePassword(@Param("id") Long id, @Param("previousHash") String previousHash, @Param("hash") String hash);
 }
@@ -0,0 +1,210 @@
+package com.example.aviaScanner.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.aviaScanner.DTO.AviaScannerUserAuditDTO;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
+import com.example.aviaScanner.model.AviaScanerUserAuditEntity;
+import com.example.aviaScanner.repository.AviaScanerUserAuditRepository;
+import com.example.aviaScanner.utils.MpscRingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Mutations only enqueue an event; a single writer thread drains the ring buffer and inserts
+// the audit rows in batches, so the request path never waits on the audit table.
+@Slf4j
+@Service
+public class AviaScanerUserAuditService implements SmartLifecycle {
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private record AuditEvent(Long userId, AviaScanerUserAuditAction action, Object changes, Instant changedAt) {
+    }
+
+    private final AviaScanerUserAuditRepository aviaScanerUserAuditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final Counter droppedEvents;
+    private final Counter failedEvents;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long blockTimeoutNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AviaScanerUserAuditService(AviaScanerUserAuditRepository aviaScanerUserAuditRepository,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${aviascanner.users.audit.enabled:true}") boolean enabled,
+            @Value("${aviascanner.users.audit.capacity:65536}") int capacity,
+            @Value("${aviascanner.users.audit.batch-size:500}") int batchSize,
+            @Value("${aviascanner.users.audit.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${aviascanner.users.audit.block-timeout-ms:1000}") long blockTimeoutMs,
+            @Value("${aviascanner.users.audit.overflow:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.aviaScanerUserAuditRepository = aviaScanerUserAuditRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.overflowPolicy = overflowPolicy;
+        this.droppedEvents = meterRegistry.counter("aviascanner.users.audit.dropped");
+        this.failedEvents = meterRegistry.counter("aviascanner.users.audit.failed");
+        Gauge.builder("aviascanner.users.audit.queue.depth", buffer, MpscRingBuffer::size)
+            .register(meterRegistry);
+    }
+
+    // Inside a transaction the event is only published once the change has committed.
+    public void record(Long userId, AviaScanerUserAuditAction action, Object changes) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(userId, action, changes, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public List<AviaScannerUserAuditDTO> getHistory(Long userId) {
+        return aviaScanerUserAuditRepository.findAllByUserIdOrderByIdAsc(userId).stream()
+            .map(entity -> new AviaScannerUserAuditDTO(entity.getId(), entity.getUserId(),
+                entity.getAction(), entity.getChanges(), entity.getChangedAt()))
+            .toList();
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!running) {
+            // writer already stopped during shutdown: write through instead of losing the event
+            persist(List.of(toEntity(event)));
+            return;
+        }
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                if (buffer.offer(event)) {
+                    return;
+                }
+            }
+        }
+        droppedEvents.increment();
+        log.warn("Audit buffer full, dropped {} event for user {}", event.action(), event.userId());
+    }
+
+    private void runWriter() {
+        List<AviaScanerUserAuditEntity> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            buffer.drain(event -> batch.add(toEntity(event)), batchSize);
+            boolean full = batch.size() == batchSize;
+            if (!batch.isEmpty()) {
+                persist(batch);
+                batch.clear();
+            }
+            if (!full && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void persist(List<AviaScanerUserAuditEntity> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> aviaScanerUserAuditRepository.saveAll(batch));
+        } catch (RuntimeException e) {
+            failedEvents.increment(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+        }
+    }
+
+    private AviaScanerUserAuditEntity toEntity(AuditEvent event) {
+        String changes = null;
+        try {
+            changes = objectMapper.writeValueAsString(event.changes());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize audit changes for user {}", event.userId(), e);
+        }
+        return AviaScanerUserAuditEntity.builder()
+            .userId(event.userId())
+            .action(event.action())
+            .changes(changes)
+            .changedAt(event.changedAt())
+            .build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "user-audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    // Drains whatever is still buffered before the datasource goes away.
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit writer did not finish in time, {} events left unwritten", buffer.size());
+            return;
+        }
+        List<AviaScanerUserAuditEntity> rest = new ArrayList<>();
+        buffer.drain(event -> rest.add(toEntity(event)), Integer.MAX_VALUE);
+        if (!rest.isEmpty()) {
+            persist(rest);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server has finished in-flight requests.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
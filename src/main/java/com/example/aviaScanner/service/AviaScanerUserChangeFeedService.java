@@ -0,0 +1,149 @@
+package com.example.aviaScanner.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.example.aviaScanner.DTO.AviaScannerUserChangeDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserChangesDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.config.ReplicaRoutingDataSource;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
+import com.example.aviaScanner.repository.AviaScanerUserOutboxRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Serves the outbox as an ordered change feed. The relay numbers committed outbox rows and
+// wakes long-polling consumers as soon as their position falls behind the feed.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Observed(name = "aviascanner.users.changes")
+public class AviaScanerUserChangeFeedService {
+    private static final long RELAY_LOCK_KEY = 0x6176_6961_7573_6572L;
+
+    private record Waiter(long since, int limit, DeferredResult<AviaScannerUserChangesDTO> result, boolean pinned) {
+    }
+
+    private final AviaScanerUserOutboxRepository aviaScanerUserOutboxRepository;
+    private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    @Value("${aviascanner.users.changes.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${aviascanner.users.changes.relay-batch-size:1000}")
+    private int relayBatchSize;
+
+    @Value("${aviascanner.users.changes.retention-days:7}")
+    private int retentionDays;
+
+    private volatile long latestSeq;
+
+    // Starts at the feed head, so a poll with a real position is answered right away after a
+    // restart instead of waiting for the first relay run.
+    @PostConstruct
+    void loadLatestSeq() {
+        latestSeq = aviaScanerUserOutboxRepository.findLatestSeq();
+    }
+
+    public AviaScannerUserChangesDTO getChanges(long since, int limit) {
+        List<AviaScanerUserOutboxRepository.Change> rows = aviaScanerUserOutboxRepository.findChangesAfter(since, limit);
+        if (rows.isEmpty()) {
+            return new AviaScannerUserChangesDTO(List.of(), since);
+        }
+        List<Long> userIds = rows.stream().map(AviaScanerUserOutboxRepository.Change::getUserId).distinct().toList();
+        Map<Long, AviaScannerUserDTO> users = aviaScanerUserSevice.getUsersByIds(userIds).getUsers().stream()
+            .collect(Collectors.toMap(AviaScannerUserDTO::getId, Function.identity()));
+        List<AviaScannerUserChangeDTO> changes = rows.stream()
+            .map(row -> new AviaScannerUserChangeDTO(row.getSeq(), row.getUserId(),
+                AviaScanerUserAuditAction.valueOf(row.getChangeType()),
+                Instant.ofEpochMilli(row.getChangedAtMillis()), users.get(row.getUserId())))
+            .toList();
+        return new AviaScannerUserChangesDTO(changes, changes.get(changes.size() - 1).getSeq());
+    }
+
+    // Answers immediately when there is something after since, otherwise parks the request
+    // until the relay sees new changes or waitMs passes (then an empty page is returned).
+    public DeferredResult<AviaScannerUserChangesDTO> pollChanges(long since, int limit, long waitMs) {
+        DeferredResult<AviaScannerUserChangesDTO> result = new DeferredResult<>(waitMs,
+            () -> new AviaScannerUserChangesDTO(List.of(), since));
+        if (waitMs == 0 || since < latestSeq) {
+            result.setResult(getChanges(since, limit));
+            return result;
+        }
+        Waiter waiter = new Waiter(since, limit, result, ReplicaRoutingDataSource.isPinnedToPrimary());
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // the relay may have moved on between the check above and registering
+        if (since < latestSeq) {
+            wake(waiter);
+        }
+        return result;
+    }
+
+    // Every instance polls the feed head so its own waiters are woken, but only the one holding
+    // the advisory lock assigns sequence numbers.
+    @Scheduled(fixedDelayString = "${aviascanner.users.changes.relay-interval-ms:200}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        Integer assigned = transactionTemplate.execute(status ->
+            aviaScanerUserOutboxRepository.tryRelayLock(RELAY_LOCK_KEY)
+                ? aviaScanerUserOutboxRepository.assignSequence(relayBatchSize)
+                : 0);
+        if (assigned != null && assigned > 0) {
+            log.debug("Relayed {} user changes", assigned);
+        }
+        long latest = aviaScanerUserOutboxRepository.findLatestSeq();
+        if (latest > latestSeq) {
+            latestSeq = latest;
+            for (Waiter waiter : waiters) {
+                if (waiter.since() < latest) {
+                    wake(waiter);
+                }
+            }
+        }
+    }
+
+    // The newest relayed row is always kept so numbering continues after a purge.
+    @Scheduled(cron = "${aviascanner.users.changes.purge-cron:0 0 3 * * *}")
+    @Transactional
+    public void purgeChanges() {
+        int purged = aviaScanerUserOutboxRepository.purge(aviaScanerUserOutboxRepository.findLatestSeq(), retentionDays);
+        log.info("Purged {} user changes older than {} days", purged, retentionDays);
+    }
+
+    // Runs on the relay thread, so a request that was reading its own writes is pinned again here.
+    private void wake(Waiter waiter) {
+        if (waiters.remove(waiter)) {
+            boolean pin = waiter.pinned() && !ReplicaRoutingDataSource.isPinnedToPrimary();
+            if (pin) {
+                ReplicaRoutingDataSource.pinToPrimary();
+            }
+            try {
+                waiter.result().setResult(getChanges(waiter.since(), waiter.limit()));
+            } catch (RuntimeException e) {
+                waiter.result().setErrorResult(e);
+            } finally {
+                if (pin) {
+                    ReplicaRoutingDataSource.unpin();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.aviaScanner.service;
+
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+
+/**
+ * Outcome of a create request. A taken email is a regular result carrying the id of the
+ * user that owns it, not an exception; {@code replayed} marks results served from a stored
+ * Idempotency-Key record.
+ */
+public record AviaScanerUserCreateResult(Outcome outcome, AviaScannerUserDTO user, Long existingId, boolean replayed) {
+
+    public enum Outcome { CREATED, DUPLICATE_EMAIL }
+
+    static AviaScanerUserCreateResult created(AviaScannerUserDTO user) {
+        return new AviaScanerUserCreateResult(Outcome.CREATED, user, null, false);
+    }
+
+    static AviaScanerUserCreateResult duplicate(Long existingId) {
+        return new AviaScanerUserCreateResult(Outcome.DUPLICATE_EMAIL, null, existingId, false);
+    }
+
+    AviaScanerUserCreateResult asReplay() {
+        return new AviaScanerUserCreateResult(outcome, user, existingId, true);
+    }
+
+    public boolean isCreated() {
+        return outcome == Outcome.CREATED;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.aviaScanner.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.BulkImportResultDTO;
+import com.example.aviaScanner.DTO.BulkImportRowResultDTO;
+import com.example.aviaScanner.DTO.BulkImportRowStatus;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import com.example.aviaScanner.repository.AviaScanerUserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Observed(name = "aviascanner.users.import")
+public class AviaScanerUserImportService {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final AviaScanerUserRepository aviaScanerUserRepository;
+    private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final AviaScanerUserAuditService aviaScanerUserAuditService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${aviascanner.users.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Reads users from a JSON array, NDJSON or CSV body and inserts them in
+     * batches of {@code aviascanner.users.bulk.batch-size}; every batch runs in
+     * its own transaction, so a large upload never holds one long transaction.
+     */
+    public BulkImportResultDTO importUsers(InputStream body, MediaType contentType) throws IOException {
+        ImportRun run = new ImportRun();
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            readCsv(body, run);
+        } else {
+            readJson(body, run);
+        }
+        run.flush();
+        log.info("Bulk import finished: {} created, {} duplicates, {} invalid",
+            run.created, run.duplicates, run.invalid);
+        return new BulkImportResultDTO(run.created, run.duplicates, run.invalid, run.results);
+    }
+
+    // MappingIterator unwraps a root-level array and also accepts whitespace separated
+    // values, so the same code path serves both JSON and NDJSON bodies.
+    private void readJson(InputStream body, ImportRun run) throws IOException {
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            int row = 0;
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                row++;
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, AviaScannerUserDTO.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(row, BulkImportRowStatus.VALIDATION_ERROR, e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void readCsv(InputStream body, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            List<String> values = splitCsvLine(line);
+            try {
+                String birthDate = csvValue(values, columns, "birthDate");
+                run.accept(row, AviaScannerUserDTO.builder()
+                    .name(csvValue(values, columns, "name"))
+                    .email(csvValue(values, columns, "email"))
+                    .phone(csvValue(values, columns, "phone"))
+                    .location(csvValue(values, columns, "location"))
+                    .birthDate(birthDate == null || birthDate.isEmpty() ? null : LocalDate.parse(birthDate, CSV_DATE_FORMAT))
+                    .build());
+            } catch (DateTimeParseException e) {
+                run.reject(row, BulkImportRowStatus.VALIDATION_ERROR, "birthDate: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= values.size() ? null : values.get(index).trim();
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private String describe(Set<ConstraintViolation<AviaScannerUserDTO>> violations) {
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private record PendingRow(int row, AviaScannerUserDTO user) {
+    }
+
+    private class ImportRun {
+        private final List<BulkImportRowResultDTO> results = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<PendingRow> pending = new ArrayList<>(batchSize);
+        private int created;
+        private int duplicates;
+        private int invalid;
+
+        void accept(int row, AviaScannerUserDTO user) {
+            Set<ConstraintViolation<AviaScannerUserDTO>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                reject(row, BulkImportRowStatus.VALIDATION_ERROR, describe(violations));
+                return;
+            }
+            if (!seenEmails.add(user.getEmail())) {
+                reject(row, BulkImportRowStatus.DUPLICATE_EMAIL, "email is repeated in the upload");
+                return;
+            }
+            pending.add(new PendingRow(row, user));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, BulkImportRowStatus status, String message) {
+            if (status == BulkImportRowStatus.DUPLICATE_EMAIL) {
+                duplicates++;
+            } else {
+                invalid++;
+            }
+            results.add(new BulkImportRowResultDTO(row, status, null, message));
+        }
+
+        // A concurrent insert of the same email is skipped by ON CONFLICT instead of failing the
+        // batch, so rows are only reported as duplicates once the insert itself has seen the conflict.
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<AviaScanerUserEntity> entities = pending.stream()
+                .map(p -> AviaScanerUserSevice.convertToEntity(p.user()))
+                .toList();
+            List<AviaScanerUserEntity> stored = transactionTemplate.execute(status -> {
+                List<AviaScanerUserEntity> rows = aviaScanerUserRepository.insertAllIfEmailAbsent(entities);
+                entityManager.clear();
+                return rows;
+            });
+            Map<String, AviaScanerUserEntity> byEmail = stored.stream()
+                .collect(Collectors.toMap(AviaScanerUserEntity::getEmail, entity -> entity));
+            for (PendingRow p : pending) {
+                AviaScanerUserEntity entity = byEmail.get(p.user().getEmail());
+                if (entity == null) {
+                    reject(p.row(), BulkImportRowStatus.DUPLICATE_EMAIL, "user with this email already exists");
+                    continue;
+                }
+                aviaScanerUserSevice.evict(entity.getId(), entity.getEmail());
+                aviaScanerUserAuditService.record(entity.getId(), AviaScanerUserAuditAction.CREATE,
+                    AviaScanerUserSevice.convertToDTO(entity));
+                results.add(new BulkImportRowResultDTO(p.row(), BulkImportRowStatus.CREATED, entity.getId(), null));
+            }
+            created += stored.size();
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.aviaScanner.service;
+
+import java.util.Optional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPatchDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPageDTO;
+import com.example.aviaScanner.config.CacheConfig;
+import com.example.aviaScanner.repository.AviaScanerUserReactiveRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive facade over the user store. Reads run on R2DBC and share the
+ * Caffeine caches with {@link AviaScanerUserSevice}; writes reuse the JPA
+ * service on the bounded elastic scheduler so both stacks keep one write path.
+ */
+@RequiredArgsConstructor
+@Service
+@Profile("reactive")
+public class AviaScanerUserReactiveService {
+    private final AviaScanerUserReactiveRepository aviaScanerUserReactiveRepository;
+    private final AviaScanerUserSevice aviaScanerUserSevice;
+    private final CacheManager cacheManager;
+
+    public Mono<AviaScannerUserDTO> getUserById(Long id) {
+        return cached(cacheManager.getCache(CacheConfig.USERS_BY_ID), id,
+            aviaScanerUserReactiveRepository.findById(id));
+    }
+
+    public Mono<AviaScannerUserDTO> getUserByEmail(String email) {
+        return cached(cacheManager.getCache(CacheConfig.USERS_BY_EMAIL), email,
+            aviaScanerUserReactiveRepository.findByEmail(email));
+    }
+
+    public Mono<AviaScannerUserPageDTO> getUsersPage(Long after, int limit) {
+        return aviaScanerUserReactiveRepository.findPage(after, limit)
+            .collectList()
+            .map(users -> new AviaScannerUserPageDTO(users,
+                users.size() == limit ? users.get(users.size() - 1).getId() : null));
+    }
+
+    public Flux<AviaScannerUserDTO> streamAllUsers() {
+        return aviaScanerUserReactiveRepository.streamAll();
+    }
+
+    public Flux<AviaScannerUserDTO> searchUsers(String query, int limit) {
+        return aviaScanerUserReactiveRepository.search(query.trim().toLowerCase(), limit);
+    }
+
+    public Mono<AviaScanerUserCreateResult> createUser(AviaScannerUserDTO userDTO) {
+        return Mono.fromCallable(() -> aviaScanerUserSevice.createUser(userDTO))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Optional<AviaScannerUserDTO>> updateUser(Long id, AviaScannerUserPatchDTO patch, Long expectedVersion) {
+        return Mono.fromCallable(() -> aviaScanerUserSevice.updateUser(id, patch, expectedVersion))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Boolean> deleteUser(Long id, Long expectedVersion) {
+        return Mono.fromCallable(() -> aviaScanerUserSevice.deleteUser(id, expectedVersion))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Caffeine lookups never block, so the cache is consulted on the event loop; misses
+    // are cached as null just like the blocking service does.
+    private static Mono<AviaScannerUserDTO> cached(Cache cache, Object key, Mono<AviaScannerUserDTO> loader) {
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return Mono.justOrEmpty((AviaScannerUserDTO) hit.get());
+        }
+        return loader
+            .doOnNext(user -> cache.put(key, user))
+            .switchIfEmpty(Mono.fromRunnable(() -> cache.put(key, null)));
+    }
+}
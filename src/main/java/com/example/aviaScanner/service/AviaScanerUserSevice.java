@@ -2,36 +2,278 @@ package com.example.aviaScanner.service;
 
 import org.springframework.stereotype.Service;
 import com.example.aviaScanner.repository.AviaScanerUserRepository;
+import com.example.aviaScanner.repository.AviaScanerUserIdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import com.example.aviaScanner.model.AviaScanerUserEntity;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
 import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPatchDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import com.example.aviaScanner.DTO.AviaScannerUserPageDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserBatchDTO;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import com.example.aviaScanner.config.CacheConfig;
+import com.example.aviaScanner.exception.IdempotencyKeyReusedException;
+import com.example.aviaScanner.exception.InvalidRequestException;
+import com.example.aviaScanner.exception.PreconditionFailedException;
+import com.example.aviaScanner.model.AviaScanerUserAuditAction;
 
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Observed(name = "aviascanner.users.service")
 
 public class AviaScanerUserSevice {
+    private static final int BATCH_GET_CHUNK_SIZE = 1000;
+    private static final Map<String, String> PATCH_PROPERTIES = Map.of(
+        "name", "name", "email", "email", "phone", "phone", "location", "location", "birth_date", "birthDate");
+
     private final AviaScanerUserRepository aviaScanerUserRepository;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final AviaScanerUserAuditService aviaScanerUserAuditService;
+    private final AviaScanerUserIdempotencyRepository aviaScanerUserIdempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${aviascanner.users.idempotency.retention-hours:24}")
+    private int idempotencyRetentionHours;
+
+    // Read-only transactions are served by a replica when replicas are configured.
+    @Transactional(readOnly = true)
+    public AviaScannerUserPageDTO getUsersPage(Long after, int limit){
+        List<AviaScannerUserDTO> users = aviaScanerUserRepository
+            .findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit))
+            .stream()
+            .map(AviaScanerUserSevice::convertToDTO)
+            .toList();
+        Long nextCursor = users.size() == limit ? users.get(users.size() - 1).getId() : null;
+        return new AviaScannerUserPageDTO(users, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AviaScannerUserDTO> searchUsers(String query, int limit){
+        return aviaScanerUserRepository.search(query.trim().toLowerCase(), limit)
+            .stream()
+            .map(AviaScanerUserSevice::convertToDTO)
+            .toList();
+    }
+
+    // Rows are detached right after conversion so the persistence context stays empty
+    // and memory does not grow with the table size.
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<AviaScannerUserDTO> consumer){
+        try (Stream<AviaScanerUserEntity> users = aviaScanerUserRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                consumer.accept(convertToDTO(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    // Misses are cached as well, so repeated lookups of unknown ids stay off the database.
+    // Not transactional itself, so a cache hit opens no transaction; a miss is loaded from the primary.
+    public Optional<AviaScannerUserDTO> getUserById(Long id){
+        return Optional.ofNullable(usersById().get(id, () -> aviaScanerUserRepository.findById(id)
+            .map(AviaScanerUserSevice::convertToDTO)
+            .orElse(null)));
+    }
 
-    public List<AviaScanerUserEntity> getAllUsers(){
-        return aviaScanerUserRepository.findAll();
+    // Ids are served from the cache first; the rest are loaded in chunks of BATCH_GET_CHUNK_SIZE.
+    // Both users and missing ids are listed in request order. Like getUserById, only the chunks
+    // that are loaded touch the database, and they read the primary.
+    public AviaScannerUserBatchDTO getUsersByIds(List<Long> ids){
+        Map<Long, AviaScannerUserDTO> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        Cache cache = usersById();
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        for (Long id : requested) {
+            Cache.ValueWrapper hit = cache.get(id);
+            if (hit == null) {
+                toLoad.add(id);
+            } else if (hit.get() != null) {
+                found.put(id, (AviaScannerUserDTO) hit.get());
+            }
+        }
+        for (int from = 0; from < toLoad.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<Long> chunk = toLoad.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, toLoad.size()));
+            for (AviaScanerUserEntity entity : aviaScanerUserRepository.findAllByIdArray(chunk.toArray(new Long[0]))) {
+                AviaScannerUserDTO user = convertToDTO(entity);
+                found.put(user.getId(), user);
+                cache.put(user.getId(), user);
+            }
+            for (Long id : chunk) {
+                if (!found.containsKey(id)) {
+                    cache.put(id, null);
+                }
+            }
+        }
+        List<AviaScannerUserDTO> users = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            AviaScannerUserDTO user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new AviaScannerUserBatchDTO(users, missing);
     }
 
-    public AviaScanerUserEntity getUserById(Long id){
-        return aviaScanerUserRepository.findById(id).orElse(null);
+    public Optional<AviaScannerUserDTO> getUserByEmail(String email){
+        return Optional.ofNullable(usersByEmail().get(email, () -> aviaScanerUserRepository.findByEmail(email)
+            .map(AviaScanerUserSevice::convertToDTO)
+            .orElse(null)));
     }
 
-    public AviaScannerUserDTO createUser(AviaScannerUserDTO userDTO) {
-        AviaScanerUserEntity entity = convertToEntity(userDTO);
-        AviaScanerUserEntity savedEntity = aviaScanerUserRepository.save(entity);
-        return convertToDTO(savedEntity);
+    @Transactional
+    public AviaScanerUserCreateResult createUser(AviaScannerUserDTO userDTO) {
+        return createUser(userDTO, null);
     }
 
-    private AviaScanerUserEntity convertToEntity(AviaScannerUserDTO dto) {
+    // With an Idempotency-Key the key is claimed in the same transaction as the insert, so a
+    // retry racing the first attempt waits for it and then replays the stored outcome.
+    @Transactional
+    public AviaScanerUserCreateResult createUser(AviaScannerUserDTO userDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return insertUser(userDTO);
+        }
+        String fingerprint = fingerprint(userDTO);
+        if (aviaScanerUserIdempotencyRepository.claim(idempotencyKey, fingerprint) == 0) {
+            return replay(idempotencyKey, fingerprint);
+        }
+        AviaScanerUserCreateResult result = insertUser(userDTO);
+        aviaScanerUserIdempotencyRepository.complete(idempotencyKey, result.outcome().name(),
+            result.isCreated() ? result.user().getId() : result.existingId(),
+            result.isCreated() ? writeJson(result.user()) : null);
+        return result;
+    }
+
+    // A taken email costs one extra indexed lookup and no exception or rollback.
+    private AviaScanerUserCreateResult insertUser(AviaScannerUserDTO userDTO) {
+        Optional<AviaScanerUserEntity> inserted = aviaScanerUserRepository.insertIfEmailAbsent(convertToEntity(userDTO));
+        if (inserted.isEmpty()) {
+            return aviaScanerUserRepository.findIdByEmail(userDTO.getEmail())
+                .map(AviaScanerUserCreateResult::duplicate)
+                // the owner was deleted between the two statements; the email is free again
+                .orElseGet(() -> insertUser(userDTO));
+        }
+        AviaScannerUserDTO saved = convertToDTO(inserted.get());
+        cache(saved);
+        aviaScanerUserAuditService.record(saved.getId(), AviaScanerUserAuditAction.CREATE, saved);
+        return AviaScanerUserCreateResult.created(saved);
+    }
+
+    private AviaScanerUserCreateResult replay(String idempotencyKey, String fingerprint) {
+        AviaScanerUserIdempotencyRepository.StoredResult stored = aviaScanerUserIdempotencyRepository
+            .findByKey(idempotencyKey)
+            .orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + idempotencyKey));
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        AviaScanerUserCreateResult result = AviaScanerUserCreateResult.Outcome.CREATED.name().equals(stored.getOutcome())
+            ? AviaScanerUserCreateResult.created(readJson(stored.getResponseBody()))
+            : AviaScanerUserCreateResult.duplicate(stored.getUserId());
+        return result.asReplay();
+    }
+
+    private String fingerprint(AviaScannerUserDTO userDTO) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(userDTO));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint create request", e);
+        }
+    }
+
+    private String writeJson(AviaScannerUserDTO user) {
+        try {
+            return objectMapper.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store create result", e);
+        }
+    }
+
+    private AviaScannerUserDTO readJson(String json) {
+        try {
+            return objectMapper.readValue(json, AviaScannerUserDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored create result", e);
+        }
+    }
+
+    @Scheduled(cron = "${aviascanner.users.idempotency.purge-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeIdempotencyKeys() {
+        int purged = aviaScanerUserIdempotencyRepository.purgeOlderThan(idempotencyRetentionHours);
+        log.debug("Purged {} idempotency keys older than {} hours", purged, idempotencyRetentionHours);
+    }
+
+    void evict(Long id, String email) {
+        afterCommit(() -> {
+            usersById().evict(id);
+            usersByEmail().evict(email);
+        });
+    }
+
+    private void cache(AviaScannerUserDTO user) {
+        afterCommit(() -> {
+            usersById().put(user.getId(), user);
+            usersByEmail().put(user.getEmail(), user);
+        });
+    }
+
+    // Cache writes wait for the commit, like the audit records: a rolled back insert must not be
+    // served from the cache, and other threads must not see uncommitted rows through it.
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Cache usersById() {
+        return cacheManager.getCache(CacheConfig.USERS_BY_ID);
+    }
+
+    private Cache usersByEmail() {
+        return cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+    }
+
+    static AviaScanerUserEntity convertToEntity(AviaScannerUserDTO dto) {
         return AviaScanerUserEntity.builder()
             .name(dto.getName())
             .email(dto.getEmail())
@@ -41,7 +283,7 @@ public class AviaScanerUserSevice {
             .build();
     }
 
-    private AviaScannerUserDTO convertToDTO(AviaScanerUserEntity entity) {
+    static AviaScannerUserDTO convertToDTO(AviaScanerUserEntity entity) {
         return AviaScannerUserDTO.builder()
             .id(entity.getId())
             .name(entity.getName())
@@ -49,29 +291,99 @@ public class AviaScanerUserSevice {
             .phone(entity.getPhone())
             .location(entity.getLocation())
             .birthDate(entity.getBirthDate())
+            .version(entity.getVersion())
             .build();
     }
 
-    public void deleteUser(Long id){
-        aviaScanerUserRepository.deleteById(id);
+    @Transactional
+    public boolean deleteUser(Long id){
+        return deleteUser(id, null);
     }
 
-    public AviaScanerUserEntity updateUser(Long id, Map<String, Object> updates) {
-        AviaScanerUserEntity user = aviaScanerUserRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Пользователь с ID " + id + " не найден"));
-        if (updates.containsKey("email")) {
-            user.setEmail((String) updates.get("email"));
+    // Returns false when no user has this id; the existence check is the DELETE itself. With an
+    // expected version a stale delete fails with PreconditionFailedException instead.
+    @Transactional
+    public boolean deleteUser(Long id, Long expectedVersion){
+        Optional<String> email = aviaScanerUserRepository.deleteByIdReturningEmail(id, expectedVersion);
+        if (email.isEmpty()) {
+            checkVersionConflict(id, expectedVersion);
         }
-        if (updates.containsKey("name")) {
-            user.setName((String) updates.get("name"));
+        afterCommit(() -> {
+            usersById().evict(id);
+            email.ifPresent(usersByEmail()::evict);
+        });
+        email.ifPresent(deleted ->
+            aviaScanerUserAuditService.record(id, AviaScanerUserAuditAction.DELETE, Map.of("email", deleted)));
+        return email.isPresent();
+    }
+
+    // Builds a single UPDATE touching only the supplied columns; an empty result means the
+    // user does not exist. With an expected version the UPDATE only matches that version.
+    @Transactional
+    public Optional<AviaScannerUserDTO> updateUser(Long id, AviaScannerUserPatchDTO patch, Long expectedVersion) {
+        Map<String, Object> columns = toPatchColumns(patch);
+        validatePatch(validator, columns);
+        if (columns.isEmpty()) {
+            Optional<AviaScannerUserDTO> current = getUserById(id);
+            if (expectedVersion != null && current.isPresent() && !expectedVersion.equals(current.get().getVersion())) {
+                throw new PreconditionFailedException();
+            }
+            return current;
+        }
+        Optional<AviaScannerUserDTO> updated = aviaScanerUserRepository.patchById(id, columns, expectedVersion)
+            .map(AviaScanerUserSevice::convertToDTO);
+        if (updated.isEmpty()) {
+            checkVersionConflict(id, expectedVersion);
+        }
+        if (columns.containsKey("email")) {
+            // the previous email is not known without another query, so drop the whole email index
+            afterCommit(usersByEmail()::clear);
+        }
+        updated.ifPresentOrElse(this::cache, () -> afterCommit(() -> usersById().evict(id)));
+        if (updated.isPresent()) {
+            aviaScanerUserAuditService.record(id, AviaScanerUserAuditAction.UPDATE, columns);
+        }
+        return updated;
+    }
+
+    // Only reached when a conditional write matched nothing, to tell a stale version from a missing user.
+    private void checkVersionConflict(Long id, Long expectedVersion) {
+        if (expectedVersion != null && aviaScanerUserRepository.existsById(id)) {
+            throw new PreconditionFailedException();
         }
-        if (updates.containsKey("phone")) {
-            user.setPhone((String) updates.get("phone"));
+    }
+
+    // Keys are column names; the typed getters replace the old map lookups and casts.
+    static Map<String, Object> toPatchColumns(AviaScannerUserPatchDTO patch) {
+        Map<String, Object> columns = new LinkedHashMap<>(8);
+        putIfPresent(columns, "name", patch.getName());
+        putIfPresent(columns, "email", patch.getEmail());
+        putIfPresent(columns, "phone", patch.getPhone());
+        putIfPresent(columns, "location", patch.getLocation());
+        putIfPresent(columns, "birth_date", patch.getBirthDate());
+        return columns;
+    }
+
+    private static void putIfPresent(Map<String, Object> columns, String column, Object value) {
+        if (value != null) {
+            columns.put(column, value);
+        }
+    }
+
+    // Only the touched fields are checked, each against its AviaScannerUserDTO constraints.
+    static void validatePatch(Validator validator, Map<String, Object> columns) {
+        StringBuilder errors = null;
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            String property = PATCH_PROPERTIES.get(column.getKey());
+            for (ConstraintViolation<AviaScannerUserDTO> violation
+                    : validator.validateValue(AviaScannerUserDTO.class, property, column.getValue())) {
+                errors = errors == null ? new StringBuilder() : errors.append("; ");
+                errors.append(property).append(": ").append(violation.getMessage());
+            }
         }
-        if (updates.containsKey("location")) {
-            user.setLocation((String) updates.get("location"));
+        if (errors != null) {
+            throw new InvalidRequestException(errors.toString());
         }
-        return aviaScanerUserRepository.save(user);
     }
     
 }
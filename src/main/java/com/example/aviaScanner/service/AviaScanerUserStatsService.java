@@ -0,0 +1,54 @@
+package com.example.aviaScanner.service;
+
+import java.util.List;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.aviaScanner.DTO.BirthYearStatsDTO;
+import com.example.aviaScanner.DTO.LocationStatsDTO;
+import com.example.aviaScanner.repository.AviaScanerUserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Observed(name = "aviascanner.users.stats")
+public class AviaScanerUserStatsService {
+    private static final long REFRESH_LOCK_KEY = 0x6176_6973_7461_7473L;
+
+    private final AviaScanerUserStatsRepository aviaScanerUserStatsRepository;
+
+    @Transactional(readOnly = true)
+    public List<LocationStatsDTO> getLocationStats() {
+        return aviaScanerUserStatsRepository.findLocationCounts().stream()
+            .map(row -> new LocationStatsDTO(row.getLocation(), row.getUserCount()))
+            .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<BirthYearStatsDTO> getBirthYearStats() {
+        return aviaScanerUserStatsRepository.findBirthYearCounts().stream()
+            .map(row -> new BirthYearStatsDTO(row.getBirthYear(), row.getUserCount()))
+            .toList();
+    }
+
+    // CONCURRENTLY keeps the views readable while they are rebuilt, so the stats
+    // endpoints never block on a refresh. Every instance schedules it, but only the one holding
+    // the advisory lock rebuilds the views; the others would queue behind it to redo the same work.
+    @Scheduled(fixedDelayString = "${aviascanner.users.stats.refresh-interval-ms}",
+        initialDelayString = "${aviascanner.users.stats.refresh-interval-ms}")
+    @Transactional
+    public void refreshStats() {
+        if (!aviaScanerUserStatsRepository.tryRefreshLock(REFRESH_LOCK_KEY)) {
+            log.debug("User stats are being refreshed by another instance");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        aviaScanerUserStatsRepository.refreshLocationCounts();
+        aviaScanerUserStatsRepository.refreshBirthYearCounts();
+        log.debug("User stats refreshed in {} ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.aviaScanner.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.aviaScanner.DTO.CheapestFareDTO;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import com.example.aviaScanner.utils.RouteIndex;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Search results cached per query. Concurrent misses for one query share a single upstream search,
+// streaming or not, and a hit older than fresh-for is served as is while one background search
+// refreshes it. Results missing a provider expire sooner so the gap is retried. The cheapest offer
+// of every search also goes into a RouteIndex for "cheapest from my location".
+@Slf4j
+@Service
+public class FareCacheService implements DisposableBean {
+    // rank() caps a search at 500 offers; the cache keeps all of them and each caller limits its copy
+    private static final int CACHED_OFFERS = 500;
+    // measured heap per cached offer and per result, for the weigher
+    private static final int OFFER_BYTES = 256;
+    private static final int RESULT_BYTES = 512;
+
+    private final FlightSearchService flightSearchService;
+    private final PriceAlertService priceAlertService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncLoadingCache<FlightSearchQuery, FlightSearchResultDTO> fares;
+    // per-provider results of the searches in flight, for streaming callers that join them
+    private final ConcurrentHashMap<FlightSearchQuery, Partials> loading = new ConcurrentHashMap<>();
+    private final RouteIndex routes;
+    private final String currency;
+
+    public FareCacheService(FlightSearchService flightSearchService, PriceAlertService priceAlertService,
+            MeterRegistry meterRegistry,
+            @Value("${aviascanner.flights.cache.ttl-ms:600000}") long ttlMillis,
+            @Value("${aviascanner.flights.cache.fresh-for-ms:60000}") long freshForMillis,
+            @Value("${aviascanner.flights.cache.incomplete-ttl-ms:30000}") long incompleteTtlMillis,
+            @Value("${aviascanner.flights.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${aviascanner.flights.currency:RUB}") String currency) {
+        this.flightSearchService = flightSearchService;
+        this.priceAlertService = priceAlertService;
+        this.currency = currency;
+        this.routes = new RouteIndex(ttlMillis);
+        this.fares = Caffeine.newBuilder()
+            .executor(executor)
+            .maximumWeight(maxBytes)
+            .weigher((FlightSearchQuery query, FlightSearchResultDTO result) ->
+                RESULT_BYTES + OFFER_BYTES * result.getOffers().size())
+            .expireAfter(expiry(TimeUnit.MILLISECONDS.toNanos(ttlMillis), TimeUnit.MILLISECONDS.toNanos(incompleteTtlMillis)))
+            .refreshAfterWrite(Duration.ofMillis(freshForMillis))
+            .recordStats()
+            .buildAsync(this::load);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, fares, "fares");
+        Gauge.builder("aviascanner.flights.fares.cache.bytes", fares,
+                cache -> cache.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.flights.fares.cache.hit.ratio", fares, cache -> cache.synchronous().stats().hitRate())
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.flights.routes.bytes", routes, RouteIndex::estimatedBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.flights.routes.airports", routes, RouteIndex::airports).register(meterRegistry);
+        Gauge.builder("aviascanner.flights.routes.count", routes, RouteIndex::routes).register(meterRegistry);
+    }
+
+    public FlightSearchResultDTO search(FlightSearchQuery query, int limit) {
+        return limited(join(fares.get(query)), limit);
+    }
+
+    /**
+     * Like {@link FlightSearchService#search(FlightSearchQuery, int, Consumer)} while the search is
+     * in flight, whether this call started it or joined it: onProvider first gets the providers that
+     * already answered. A hit is returned without calling onProvider.
+     */
+    public FlightSearchResultDTO search(FlightSearchQuery query, int limit, Consumer<FlightSearchResultDTO> onProvider) {
+        CompletableFuture<FlightSearchResultDTO> result = fares.get(query);
+        Partials partials = result.isDone() ? null : loading.get(query);
+        if (partials == null) {
+            return limited(join(result), limit);
+        }
+        Consumer<FlightSearchResultDTO> listener = partial -> onProvider.accept(limited(partial, limit));
+        partials.subscribe(listener);
+        try {
+            return limited(join(result), limit);
+        } finally {
+            partials.unsubscribe(listener);
+        }
+    }
+
+    /** Fails now, rather than once a stream has started, when no search could succeed. */
+    public void requireProviders() {
+        flightSearchService.requireProviders();
+    }
+
+    public List<CheapestFareDTO> cheapestFrom(String origin, int limit) {
+        return routes.cheapestFrom(origin, LocalDate.now().toEpochDay(), System.currentTimeMillis(), limit).stream()
+            .map(fare -> new CheapestFareDTO(fare.origin(), fare.destination(), LocalDate.ofEpochDay(fare.epochDay()),
+                BigDecimal.valueOf(fare.priceMinor(), 2), currency))
+            .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${aviascanner.flights.routes.eviction-interval-ms:60000}")
+    public void evictExpiredRoutes() {
+        long evicted = routes.evictExpired(LocalDate.now().toEpochDay(), System.currentTimeMillis());
+        if (evicted > 0) {
+            log.debug("Evicted {} expired routes", evicted);
+        }
+    }
+
+    // Registers the search's partials before it starts, so a caller that gets this future from the
+    // cache always finds them. Refreshes load through here as well.
+    private CompletableFuture<FlightSearchResultDTO> load(FlightSearchQuery query, Executor executor) {
+        Partials partials = new Partials();
+        loading.put(query, partials);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                FlightSearchResultDTO result = flightSearchService.search(query, CACHED_OFFERS, partials::publish);
+                index(result);
+                return result;
+            } finally {
+                loading.remove(query, partials);
+            }
+        }, executor);
+    }
+
+    private static FlightSearchResultDTO join(CompletableFuture<FlightSearchResultDTO> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // offers are ranked, so the first is the cheapest
+    private void index(FlightSearchResultDTO result) {
+        if (result.getOffers().isEmpty() || !currency.equals(result.getOffers().get(0).getCurrency())) {
+            return;
+        }
+        BigDecimal price = result.getOffers().get(0).getPrice();
+        priceAlertService.onFare(result.getOrigin(), result.getDestination(), result.getDate(), price, currency);
+        long priceMinor = price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        routes.record(result.getOrigin(), result.getDestination(), result.getDate().toEpochDay(), priceMinor,
+            System.currentTimeMillis());
+    }
+
+    private static FlightSearchResultDTO limited(FlightSearchResultDTO result, int limit) {
+        if (result.getOffers().size() <= limit) {
+            return result;
+        }
+        return new FlightSearchResultDTO(result.getOrigin(), result.getDestination(), result.getDate(),
+            result.getOffers().subList(0, limit), result.getProviders(), result.isComplete(), result.getSearchedAt());
+    }
+
+    // Partial results of one search, replayed to listeners that subscribe late. Listeners are called
+    // under the lock, which keeps each one's results in order; they only hand the result to a client.
+    private static final class Partials {
+        private final List<FlightSearchResultDTO> delivered = new ArrayList<>();
+        private final List<Consumer<FlightSearchResultDTO>> listeners = new ArrayList<>();
+
+        synchronized void publish(FlightSearchResultDTO partial) {
+            delivered.add(partial);
+            listeners.forEach(listener -> deliver(listener, partial));
+        }
+
+        synchronized void subscribe(Consumer<FlightSearchResultDTO> listener) {
+            delivered.forEach(partial -> deliver(listener, partial));
+            listeners.add(listener);
+        }
+
+        synchronized void unsubscribe(Consumer<FlightSearchResultDTO> listener) {
+            listeners.remove(listener);
+        }
+
+        // one listener whose client went away must not cost the others their results
+        private static void deliver(Consumer<FlightSearchResultDTO> listener, FlightSearchResultDTO partial) {
+            try {
+                listener.accept(partial);
+            } catch (RuntimeException e) {
+                log.debug("Partial flight search result was not delivered", e);
+            }
+        }
+    }
+
+    private static Expiry<FlightSearchQuery, FlightSearchResultDTO> expiry(long ttlNanos, long incompleteTtlNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(FlightSearchQuery query, FlightSearchResultDTO result, long currentTime) {
+                return result.isComplete() ? ttlNanos : incompleteTtlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(FlightSearchQuery query, FlightSearchResultDTO result, long currentTime,
+                    long currentDuration) {
+                return expireAfterCreate(query, result, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(FlightSearchQuery query, FlightSearchResultDTO result, long currentTime,
+                    long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.aviaScanner.service;
+
+import java.io.IOException;
+import java.util.List;
+import com.example.aviaScanner.DTO.FlightOfferDTO;
+
+/**
+ * Adapter to one fare source. Every FareProvider bean takes part in each flight search.
+ * Calls run on their own virtual thread and are interrupted once the search stops waiting,
+ * so blocking I/O is fine. Hedged searches may call search twice for the same query.
+ * Prices must already be in the configured search currency.
+ */
+public interface FareProvider {
+    String name();
+
+    List<FlightOfferDTO> search(FlightSearchQuery query) throws IOException, InterruptedException;
+}
@@ -0,0 +1,7 @@
+package com.example.aviaScanner.service;
+
+import java.time.LocalDate;
+
+// Airports are upper-case IATA codes.
+public record FlightSearchQuery(String origin, String destination, LocalDate date, int passengers) {
+}
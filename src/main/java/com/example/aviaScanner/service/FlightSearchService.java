@@ -0,0 +1,225 @@
+package com.example.aviaScanner.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import com.example.aviaScanner.DTO.FlightOfferDTO;
+import com.example.aviaScanner.DTO.FlightProviderStatus;
+import com.example.aviaScanner.DTO.FlightProviderStatusDTO;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import com.example.aviaScanner.exception.FlightSearchUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Asks every FareProvider at once, each on its own virtual thread and with its own deadline, so
+// a search takes as long as the slowest provider that answers in time. A provider slower than its
+// hedge delay gets a second identical request and the first answer wins; hedges are limited to a
+// share of all calls so a provider that is slow across the board does not get twice the load.
+@Slf4j
+@Service
+@Observed(name = "aviascanner.flights.search")
+public class FlightSearchService implements DisposableBean {
+    private static final Comparator<FlightOfferDTO> RANKING = Comparator
+        .comparing(FlightOfferDTO::getPrice)
+        .thenComparingInt(FlightOfferDTO::getDurationMinutes)
+        .thenComparing(FlightOfferDTO::getDeparture);
+    // hedge credits are counted in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_HEDGE_CREDITS = 10 * HEDGE_COST;
+
+    private final List<ProviderSettings> providers;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long creditsPerCall;
+    private final AtomicLong hedgeCredits = new AtomicLong(MAX_HEDGE_CREDITS);
+
+    private record ProviderSettings(FareProvider provider, long timeoutNanos, long hedgeDelayNanos,
+            Map<FlightProviderStatus, Timer> latency, Counter hedges) {
+    }
+
+    private record ProviderResult(FlightProviderStatusDTO status, List<FlightOfferDTO> offers) {
+    }
+
+    public FlightSearchService(List<FareProvider> fareProviders, Environment environment, MeterRegistry meterRegistry,
+            @Value("${aviascanner.flights.provider-timeout-ms:2000}") long timeoutMillis,
+            @Value("${aviascanner.flights.hedge-delay-ms:250}") long hedgeDelayMillis,
+            @Value("${aviascanner.flights.hedge-budget-percent:10}") int hedgeBudgetPercent) {
+        this.creditsPerCall = HEDGE_COST * hedgeBudgetPercent / 100;
+        this.providers = fareProviders.stream().map(provider -> {
+            // aviascanner.flights.providers.<name>.* overrides the defaults for one provider
+            String prefix = "aviascanner.flights.providers." + provider.name() + ".";
+            Map<FlightProviderStatus, Timer> latency = new EnumMap<>(FlightProviderStatus.class);
+            for (FlightProviderStatus status : FlightProviderStatus.values()) {
+                latency.put(status, Timer.builder("aviascanner.flights.provider.latency")
+                    .tag("provider", provider.name())
+                    .tag("status", status.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            }
+            return new ProviderSettings(provider,
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty(prefix + "timeout-ms", Long.class, timeoutMillis)),
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty(prefix + "hedge-delay-ms", Long.class, hedgeDelayMillis)),
+                latency,
+                Counter.builder("aviascanner.flights.provider.hedges").tag("provider", provider.name()).register(meterRegistry));
+        }).toList();
+        if (providers.isEmpty()) {
+            log.warn("Flight search has no fare providers; searches will answer 503");
+        } else {
+            log.info("Flight search uses {} fare providers", providers.size());
+        }
+    }
+
+    public FlightSearchResultDTO search(FlightSearchQuery query, int limit) {
+        return search(query, limit, partial -> { });
+    }
+
+    /**
+     * Returns once every provider has answered or hit its timeout. Each provider's offers are
+     * passed to onProvider as soon as they arrive, ranked and limited like the final result.
+     * Without providers there is nothing to search, and an empty result must not be cached as
+     * complete, so the search fails instead.
+     */
+    public FlightSearchResultDTO search(FlightSearchQuery query, int limit, Consumer<FlightSearchResultDTO> onProvider) {
+        requireProviders();
+        List<CompletableFuture<ProviderResult>> calls = new ArrayList<>(providers.size());
+        for (ProviderSettings settings : providers) {
+            calls.add(CompletableFuture.supplyAsync(() -> call(settings, query), executor)
+                .thenApply(result -> {
+                    try {
+                        onProvider.accept(toResult(query, rank(result.offers(), limit), List.of(result.status()), false));
+                    } catch (RuntimeException e) {
+                        log.debug("Partial result of {} was not delivered", result.status().getProvider(), e);
+                    }
+                    return result;
+                }));
+        }
+        List<FlightOfferDTO> offers = new ArrayList<>();
+        List<FlightProviderStatusDTO> statuses = new ArrayList<>(calls.size());
+        for (CompletableFuture<ProviderResult> call : calls) {
+            ProviderResult result = call.join();
+            offers.addAll(result.offers());
+            statuses.add(result.status());
+        }
+        boolean complete = statuses.stream().allMatch(status -> status.getStatus() == FlightProviderStatus.OK);
+        return toResult(query, rank(offers, limit), statuses, complete);
+    }
+
+    public void requireProviders() {
+        if (providers.isEmpty()) {
+            throw new FlightSearchUnavailableException();
+        }
+    }
+
+    private ProviderResult call(ProviderSettings settings, FlightSearchQuery query) {
+        FareProvider provider = settings.provider();
+        long start = System.nanoTime();
+        long deadline = start + settings.timeoutNanos();
+        CompletableFuture<List<FlightOfferDTO>> response = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        List<Future<?>> attempts = new ArrayList<>(2);
+        attempts.add(executor.submit(() -> attempt(provider, query, response, pending)));
+        accrueHedgeCredit();
+        boolean hedged = false;
+        List<FlightOfferDTO> offers = List.of();
+        FlightProviderStatus status;
+        try {
+            try {
+                offers = response.get(Math.min(settings.hedgeDelayNanos(), settings.timeoutNanos()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (settings.hedgeDelayNanos() < settings.timeoutNanos() && tryHedge()) {
+                    pending.incrementAndGet();
+                    attempts.add(executor.submit(() -> attempt(provider, query, response, pending)));
+                    hedged = true;
+                    settings.hedges().increment();
+                }
+                offers = response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            status = FlightProviderStatus.OK;
+        } catch (TimeoutException e) {
+            status = FlightProviderStatus.TIMEOUT;
+        } catch (ExecutionException e) {
+            status = FlightProviderStatus.FAILED;
+            log.debug("Fare provider {} failed", provider.name(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = FlightProviderStatus.TIMEOUT;
+        } finally {
+            // interrupts the attempt still running, if any
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+        long elapsed = System.nanoTime() - start;
+        settings.latency().get(status).record(elapsed, TimeUnit.NANOSECONDS);
+        return new ProviderResult(new FlightProviderStatusDTO(provider.name(), status, offers.size(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed), hedged), offers);
+    }
+
+    // The first attempt to succeed completes the response; it only fails once every attempt has.
+    private static void attempt(FareProvider provider, FlightSearchQuery query,
+            CompletableFuture<List<FlightOfferDTO>> response, AtomicInteger pending) {
+        try {
+            response.complete(provider.search(query));
+        } catch (Exception e) {
+            if (pending.decrementAndGet() == 0) {
+                response.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void accrueHedgeCredit() {
+        hedgeCredits.accumulateAndGet(creditsPerCall, (credits, added) -> Math.min(MAX_HEDGE_CREDITS, credits + added));
+    }
+
+    private boolean tryHedge() {
+        while (true) {
+            long credits = hedgeCredits.get();
+            if (credits < HEDGE_COST) {
+                return false;
+            }
+            if (hedgeCredits.compareAndSet(credits, credits - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+
+    // The same flight sold by several providers is listed once, at its lowest price.
+    static List<FlightOfferDTO> rank(List<FlightOfferDTO> offers, int limit) {
+        Map<String, FlightOfferDTO> cheapest = new HashMap<>(offers.size() * 2);
+        for (FlightOfferDTO offer : offers) {
+            cheapest.merge(offer.getFlightNumber() + '@' + offer.getDeparture(), offer,
+                (a, b) -> b.getPrice().compareTo(a.getPrice()) < 0 ? b : a);
+        }
+        return cheapest.values().stream().sorted(RANKING).limit(limit).toList();
+    }
+
+    private static FlightSearchResultDTO toResult(FlightSearchQuery query, List<FlightOfferDTO> offers,
+            List<FlightProviderStatusDTO> statuses, boolean complete) {
+        return new FlightSearchResultDTO(query.origin(), query.destination(), query.date(), offers, statuses, complete,
+            Instant.now());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.aviaScanner.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.exception.InvalidRequestException;
+
+
+// User locations are free text such as "Kazan". Searches that start from the user's location need
+// an airport, taken from aviascanner.flights.home-airports.<city>=<code>; a location that is no
+// configured city but looks like a three-letter code is used as it is.
+@Service
+public class HomeAirportService {
+    private static final Pattern AIRPORT_CODE = Pattern.compile("[A-Z]{3}");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_-]+");
+
+    private final Map<String, String> airports = new HashMap<>();
+
+    public HomeAirportService(Environment environment) {
+        Binder.get(environment)
+            .bind("aviascanner.flights.home-airports", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of())
+            .forEach((city, code) -> airports.put(normalize(city), code.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /** Where searches without an origin start for this user; a 400 when none is known. */
+    public String homeAirport(AviaScannerUserDTO user) {
+        return resolve(user.getLocation()).orElseThrow(() -> new InvalidRequestException("no airport is configured "
+            + "for location '" + user.getLocation() + "' of user " + user.getId() + ", pass origin instead"));
+    }
+
+    /** Empty when the location names no configured city. */
+    public Optional<String> resolve(String location) {
+        String airport = airports.get(normalize(location));
+        if (airport != null) {
+            return Optional.of(airport);
+        }
+        String code = location.trim().toUpperCase(Locale.ROOT);
+        return AIRPORT_CODE.matcher(code).matches() ? Optional.of(code) : Optional.empty();
+    }
+
+    // "Saint Petersburg", "saint-petersburg" and "SAINT_PETERSBURG" are the same city
+    private static String normalize(String city) {
+        return SEPARATORS.matcher(city.trim().toLowerCase(Locale.ROOT)).replaceAll("-");
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.aviaScanner.service;
+
+import java.util.List;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Until users have a delivery channel, fired alerts are only logged.
+@Slf4j
+@Service
+public class LoggingPriceAlertNotifier implements PriceAlertNotifier {
+
+    @Override
+    public void notify(List<PriceAlertMatch> matches) {
+        for (PriceAlertMatch match : matches) {
+            log.info("Price alert {} for user {}: {}-{} on {} for {} {} (limit {})", match.alert().getId(),
+                match.alert().getUserId(), match.alert().getOrigin(), match.alert().getDestination(), match.date(),
+                match.price(), match.currency(), match.alert().getMaxPrice());
+        }
+    }
+}
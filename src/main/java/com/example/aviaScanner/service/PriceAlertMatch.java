@@ -0,0 +1,9 @@
+package com.example.aviaScanner.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import com.example.aviaScanner.DTO.PriceAlertDTO;
+
+// The fare that fired the alert; the alert itself is already deleted.
+public record PriceAlertMatch(PriceAlertDTO alert, LocalDate date, BigDecimal price, String currency) {
+}
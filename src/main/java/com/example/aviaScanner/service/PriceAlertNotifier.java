@@ -0,0 +1,12 @@
+package com.example.aviaScanner.service;
+
+import java.util.List;
+
+/**
+ * Delivers fired price alerts to users. Every PriceAlertNotifier bean receives every match.
+ * Calls come from the alert matcher thread with the matches of one batch, so a notifier that
+ * blocks for long delays matching and should hand the work off.
+ */
+public interface PriceAlertNotifier {
+    void notify(List<PriceAlertMatch> matches);
+}
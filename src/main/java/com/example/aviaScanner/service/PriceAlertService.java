@@ -0,0 +1,323 @@
+package com.example.aviaScanner.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.aviaScanner.DTO.PriceAlertDTO;
+import com.example.aviaScanner.model.PriceAlertEntity;
+import com.example.aviaScanner.repository.PriceAlertRepository;
+import com.example.aviaScanner.utils.MpscRingBuffer;
+import com.example.aviaScanner.utils.PriceAlertIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+
+// Alerts are stored in price_alert and mirrored in a PriceAlertIndex loaded at startup. Searches
+// only enqueue the fares they find; a single matcher thread drains them in batches, keeps the
+// lowest fare per route, matches each route once and deletes and notifies the alerts that fired.
+// Other instances share the table but not the index, so it is reloaded every resync interval to
+// pick up the alerts they created and drop the ones they cancelled or fired.
+@Slf4j
+@Service
+public class PriceAlertService implements SmartLifecycle, MeterBinder {
+    // alerts claimed per statement, well under the driver's limit of bind parameters
+    private static final int FIRE_CHUNK = 1000;
+
+    private record FareUpdate(String origin, String destination, LocalDate date, long priceMinor) {
+    }
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final List<PriceAlertNotifier> notifiers;
+    private final TransactionTemplate transactionTemplate;
+    // guards index and created
+    private final Object lock = new Object();
+    private final MpscRingBuffer<FareUpdate> updates;
+    private final Counter droppedUpdates;
+    private final Counter matchedAlerts;
+    private final Timer batches;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final String currency;
+
+    private PriceAlertIndex index = new PriceAlertIndex();
+    // alerts created here while a resync reads the table, which it may not see
+    private List<PriceAlertEntity> created;
+
+    private volatile boolean running;
+    private volatile Thread matcher;
+
+    public PriceAlertService(PriceAlertRepository priceAlertRepository, List<PriceAlertNotifier> notifiers,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${aviascanner.alerts.enabled:true}") boolean enabled,
+            @Value("${aviascanner.alerts.capacity:65536}") int capacity,
+            @Value("${aviascanner.alerts.batch-size:4096}") int batchSize,
+            @Value("${aviascanner.alerts.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${aviascanner.flights.currency:RUB}") String currency) {
+        this.priceAlertRepository = priceAlertRepository;
+        this.notifiers = notifiers;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.updates = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.currency = currency;
+        this.droppedUpdates = meterRegistry.counter("aviascanner.alerts.updates.dropped");
+        this.matchedAlerts = meterRegistry.counter("aviascanner.alerts.matched");
+        this.batches = Timer.builder("aviascanner.alerts.batch").register(meterRegistry);
+        Gauge.builder("aviascanner.alerts.queue.depth", updates, MpscRingBuffer::size).register(meterRegistry);
+    }
+
+    // Gauges over the service itself, bound by Spring once it is constructed.
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("aviascanner.alerts.subscriptions", this, service -> service.indexed(PriceAlertIndex::size))
+            .register(meterRegistry);
+        Gauge.builder("aviascanner.alerts.index.bytes", this, service -> service.indexed(PriceAlertIndex::estimatedBytes))
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /** Origin and destination must already be validated airport codes. */
+    public PriceAlertDTO create(Long userId, PriceAlertDTO request) {
+        PriceAlertEntity entity = priceAlertRepository.save(PriceAlertEntity.builder()
+            .userId(userId)
+            .origin(request.getOrigin())
+            .destination(request.getDestination())
+            .maxPrice(request.getMaxPrice())
+            .createdAt(Instant.now())
+            .build());
+        synchronized (lock) {
+            index.add(entity.getId(), entity.getOrigin(), entity.getDestination(), minorUnits(entity.getMaxPrice()));
+            if (created != null) {
+                created.add(entity);
+            }
+        }
+        return toDTO(entity);
+    }
+
+    public List<PriceAlertDTO> getAlerts(Long userId) {
+        return priceAlertRepository.findAllByUserIdOrderByIdAsc(userId).stream().map(PriceAlertService::toDTO).toList();
+    }
+
+    /** Returns false when the user has no such alert, including one that has already fired. */
+    public boolean cancel(Long userId, Long alertId) {
+        return priceAlertRepository.findByIdAndUserId(alertId, userId).map(entity -> {
+            priceAlertRepository.delete(entity);
+            synchronized (lock) {
+                index.remove(entity.getId(), entity.getOrigin(), entity.getDestination(), minorUnits(entity.getMaxPrice()));
+            }
+            return true;
+        }).orElse(false);
+    }
+
+    /** Never blocks: when the matcher falls behind, the fare is dropped and counted. */
+    public void onFare(String origin, String destination, LocalDate date, BigDecimal price, String fareCurrency) {
+        if (!running || !currency.equals(fareCurrency)) {
+            return;
+        }
+        if (!updates.offer(new FareUpdate(origin, destination, date, minorUnits(price)))) {
+            droppedUpdates.increment();
+            return;
+        }
+        if (updates.size() >= batchSize) {
+            LockSupport.unpark(matcher);
+        }
+    }
+
+    private void runMatcher() {
+        // lowest fare per route in the batch; a higher fare cannot fire an alert the lowest does not
+        Map<String, FareUpdate> lowest = new HashMap<>();
+        while (running || updates.size() > 0) {
+            int drained = updates.drain(update -> lowest.merge(update.origin() + update.destination(), update,
+                (a, b) -> b.priceMinor() < a.priceMinor() ? b : a), batchSize);
+            if (!lowest.isEmpty()) {
+                try {
+                    batches.record(() -> match(lowest.values()));
+                } catch (RuntimeException e) {
+                    log.error("Failed to match {} fare updates", drained, e);
+                }
+                lowest.clear();
+            }
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void match(Iterable<FareUpdate> fares) {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, FareUpdate> firedBy = new HashMap<>();
+        synchronized (lock) {
+            for (FareUpdate fare : fares) {
+                index.match(fare.origin(), fare.destination(), fare.priceMinor(), id -> {
+                    ids.add(id);
+                    firedBy.put(id, fare);
+                });
+            }
+        }
+        for (int from = 0; from < ids.size(); from += FIRE_CHUNK) {
+            fire(ids.subList(from, Math.min(ids.size(), from + FIRE_CHUNK)), firedBy);
+        }
+    }
+
+    // Only the alerts this instance deleted are notified. Ones cancelled since they were matched,
+    // whose user was deleted, or that another instance fired first are gone from the table.
+    private void fire(List<Long> ids, Map<Long, FareUpdate> firedBy) {
+        List<PriceAlertEntity> fired;
+        try {
+            fired = priceAlertRepository.deleteAllByIdReturning(ids.toArray(new Long[0]));
+        } catch (RuntimeException e) {
+            log.error("Failed to fire {} price alerts, putting them back", ids.size(), e);
+            restore(ids);
+            return;
+        }
+        matchedAlerts.increment(fired.size());
+        List<PriceAlertMatch> matches = fired.stream().map(entity -> {
+            FareUpdate fare = firedBy.get(entity.getId());
+            return new PriceAlertMatch(toDTO(entity), fare.date(), BigDecimal.valueOf(fare.priceMinor(), 2), currency);
+        }).toList();
+        for (PriceAlertNotifier notifier : notifiers) {
+            try {
+                notifier.notify(matches);
+            } catch (RuntimeException e) {
+                log.error("{} failed to deliver {} price alerts", notifier.getClass().getSimpleName(), matches.size(), e);
+            }
+        }
+    }
+
+    private void restore(List<Long> ids) {
+        try {
+            List<PriceAlertEntity> alerts = priceAlertRepository.findAllById(ids);
+            synchronized (lock) {
+                alerts.forEach(entity -> index.add(entity.getId(), entity.getOrigin(), entity.getDestination(),
+                    minorUnits(entity.getMaxPrice())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not restore {} price alerts; they are reloaded on restart", ids.size(), e);
+        }
+    }
+
+    // An alert fired or cancelled here during the reload may come back until the next one; matching
+    // it again is harmless, since claiming it deletes nothing. One created here may be loaded twice.
+    @Scheduled(fixedDelayString = "${aviascanner.alerts.resync-interval-ms:60000}",
+        initialDelayString = "${aviascanner.alerts.resync-interval-ms:60000}")
+    public void resync() {
+        if (!running) {
+            return;
+        }
+        synchronized (lock) {
+            created = new ArrayList<>();
+        }
+        try {
+            long start = System.nanoTime();
+            PriceAlertIndex loaded = load();
+            long size;
+            synchronized (lock) {
+                created.forEach(entity -> loaded.add(entity.getId(), entity.getOrigin(), entity.getDestination(),
+                    minorUnits(entity.getMaxPrice())));
+                size = index.size();
+                index = loaded;
+            }
+            log.debug("Reloaded {} price alerts ({} before) in {} ms", loaded.size(), size,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.error("Failed to reload price alerts, keeping the current index", e);
+        } finally {
+            synchronized (lock) {
+                created = null;
+            }
+        }
+    }
+
+    private PriceAlertIndex load() {
+        PriceAlertIndex loaded = new PriceAlertIndex();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PriceAlertRepository.AlertThreshold> alerts = priceAlertRepository.streamAllByRoute()) {
+                alerts.forEach(alert -> loaded.add(alert.getId(), alert.getOrigin(), alert.getDestination(),
+                    minorUnits(alert.getMaxPrice())));
+            }
+        });
+        return loaded;
+    }
+
+    private long indexed(ToLongFunction<PriceAlertIndex> metric) {
+        synchronized (lock) {
+            return metric.applyAsLong(index);
+        }
+    }
+
+    private static long minorUnits(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static PriceAlertDTO toDTO(PriceAlertEntity entity) {
+        return new PriceAlertDTO(entity.getId(), entity.getUserId(), entity.getOrigin(), entity.getDestination(),
+            entity.getMaxPrice(), entity.getCreatedAt());
+    }
+
+    // Loads every alert before the web server takes requests.
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        PriceAlertIndex loaded = load();
+        synchronized (lock) {
+            index = loaded;
+        }
+        log.info("Loaded {} price alerts in {} ms", loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        running = true;
+        Thread thread = new Thread(this::runMatcher, "price-alert-matcher");
+        thread.setDaemon(true);
+        matcher = thread;
+        thread.start();
+    }
+
+    // Fares still queued are matched before the datasource goes away.
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = matcher;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, like the audit writer.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.aviaScanner.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import com.example.aviaScanner.DTO.FlightOfferDTO;
+
+/**
+ * Fake fare source for local runs and benchmarks. Latency is log-normal, fitted to the given
+ * median and p99, and a share of calls fails. Offers are derived from the provider name and the
+ * query, so repeated and hedged calls return the same flights.
+ */
+public class StubFareProvider implements FareProvider {
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final String name;
+    private final String carrier;
+    private final double medianMillis;
+    private final double sigma;
+    private final double failureRate;
+    private final int offersPerSearch;
+    private final String currency;
+
+    public StubFareProvider(String name, long medianLatencyMillis, long p99LatencyMillis, double failureRate,
+            int offersPerSearch, String currency) {
+        if (medianLatencyMillis < 0 || p99LatencyMillis < medianLatencyMillis) {
+            throw new IllegalArgumentException("Latency must satisfy 0 <= median <= p99");
+        }
+        this.name = name;
+        this.carrier = (name + "XX").substring(0, 2).toUpperCase(Locale.ROOT);
+        this.medianMillis = medianLatencyMillis;
+        this.sigma = medianLatencyMillis == 0 ? 0 : Math.log((double) p99LatencyMillis / medianLatencyMillis) / Z_99;
+        this.failureRate = failureRate;
+        this.offersPerSearch = offersPerSearch;
+        this.currency = currency;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public List<FlightOfferDTO> search(FlightSearchQuery query) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMicros = (long) (medianMillis * 1000 * Math.exp(sigma * random.nextGaussian()));
+        Thread.sleep(latencyMicros / 1000, (int) (latencyMicros % 1000) * 1000);
+        if (random.nextDouble() < failureRate) {
+            throw new IOException(name + " is unavailable");
+        }
+        Random offers = new Random(name.hashCode() * 31L + query.hashCode());
+        List<FlightOfferDTO> result = new ArrayList<>(offersPerSearch);
+        for (int i = 0; i < offersPerSearch; i++) {
+            LocalDateTime departure = query.date().atStartOfDay().plusMinutes(5L * offers.nextInt(288));
+            int stops = offers.nextInt(10) < 7 ? 0 : 1;
+            int duration = 60 + offers.nextInt(240) + stops * (60 + offers.nextInt(180));
+            result.add(FlightOfferDTO.builder()
+                .provider(name)
+                .flightNumber(carrier + (100 + offers.nextInt(900)))
+                .origin(query.origin())
+                .destination(query.destination())
+                .departure(departure)
+                .arrival(departure.plusMinutes(duration))
+                .durationMinutes(duration)
+                .stops(stops)
+                .price(BigDecimal.valueOf((3000 + offers.nextInt(27000)) * (long) query.passengers()))
+                .currency(currency)
+                .build());
+        }
+        return result;
+    }
+}
@@ -1,8 +1,157 @@
 package com.example.aviaScanner.service;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.aviaScanner.DTO.AuthTokenDTO;
+import com.example.aviaScanner.DTO.AuthUserDTO;
+import com.example.aviaScanner.DTO.CredentialsDTO;
+import com.example.aviaScanner.config.CacheConfig;
+import com.example.aviaScanner.model.UserEntity;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.repository.UserEntityRepository;
+import com.example.aviaScanner.utils.AuthTokens;
+import com.example.aviaScanner.utils.PasswordHasher;
+import lombok.extern.slf4j.Slf4j;
 
+
+// Accounts of API clients. Only login touches the password hash; every other request is
+// authenticated from the signed token plus the cached role of its user.
+@Slf4j
 @Service
 public class UserEntityService {
-    
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private final UserEntityRepository userEntityRepository;
+    private final PasswordHasher passwordHasher;
+    private final AuthTokens authTokens;
+    // compared against when the email is unknown, so a miss costs as much as a wrong password;
+    // created on first use because one hash takes as long as a login
+    private volatile String unknownUserHash;
+
+    private final String bootstrapAdminEmail;
+    private final String bootstrapAdminPassword;
+
+    public UserEntityService(UserEntityRepository userEntityRepository,
+            @Value("${aviascanner.auth.pbkdf2-iterations:600000}") int iterations,
+            @Value("${aviascanner.auth.token-secret:}") String tokenSecret,
+            @Value("${aviascanner.auth.token-ttl:15m}") Duration tokenTtl,
+            @Value("${aviascanner.auth.bootstrap-admin.email:}") String bootstrapAdminEmail,
+            @Value("${aviascanner.auth.bootstrap-admin.password:}") String bootstrapAdminPassword) {
+        this.userEntityRepository = userEntityRepository;
+        this.passwordHasher = new PasswordHasher(iterations);
+        this.authTokens = new AuthTokens(tokenSecret(tokenSecret), tokenTtl);
+        this.bootstrapAdminEmail = bootstrapAdminEmail;
+        this.bootstrapAdminPassword = bootstrapAdminPassword;
+    }
+
+    // The password KDF takes as long as a request may, so it runs outside any transaction: a
+    // short read, the hash, then a short write. Neither holds a pooled connection while hashing.
+
+    /** Empty when the email is already registered. */
+    public Optional<AuthUserDTO> register(CredentialsDTO credentials) {
+        if (userEntityRepository.existsByEmail(credentials.getEmail())) {
+            return Optional.empty();
+        }
+        String hash = passwordHasher.hash(credentials.getPassword());
+        try {
+            UserEntity user = userEntityRepository.save(UserEntity.builder()
+                .email(credentials.getEmail())
+                .password(hash)
+                .role(UserRole.USER)
+                .build());
+            return Optional.of(toDTO(user));
+        } catch (DataIntegrityViolationException e) {
+            // registered concurrently while this request was hashing
+            return Optional.empty();
+        }
+    }
+
+    /** Empty when the email is unknown or the password is wrong. */
+    public Optional<AuthTokenDTO> login(CredentialsDTO credentials) {
+        Optional<UserEntity> user = userEntityRepository.findByEmail(credentials.getEmail());
+        String hash = user.map(UserEntity::getPassword).orElseGet(this::unknownUserHash);
+        if (!passwordHasher.matches(credentials.getPassword(), hash) || user.isEmpty()) {
+            return Optional.empty();
+        }
+        UserEntity entity = user.get();
+        if (passwordHasher.needsRehash(hash)) {
+            // only if the hash is still the one verified, so a concurrent password change wins
+            userEntityRepository.updatePassword(entity.getId(), hash, passwordHasher.hash(credentials.getPassword()));
+        }
+        AuthTokens.Token token = authTokens.issue(entity.getId(), Instant.now());
+        return Optional.of(new AuthTokenDTO(token.value(), TOKEN_TYPE, token.expiresAt()));
+    }
+
+    public OptionalLong verifyToken(String token) {
+        return authTokens.verify(token, Instant.now());
+    }
+
+    // Role changes made on another instance show up once the cache entry expires.
+    @Cacheable(cacheNames = CacheConfig.USER_ROLES, unless = "#result == null")
+    public Optional<UserRole> findRole(Long userId) {
+        return userEntityRepository.findRoleById(userId);
+    }
+
+    // an account's email never changes, so this is cached without expiry concerns
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_EMAILS, unless = "#result == null")
+    public Optional<String> findEmail(Long userId) {
+        return userEntityRepository.findEmailById(userId);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_ROLES, key = "#userId")
+    public boolean updateRole(Long userId, UserRole role) {
+        return userEntityRepository.updateRole(userId, role) > 0;
+    }
+
+    // Gives a fresh installation its first admin, who can then promote other accounts.
+    @EventListener(ApplicationReadyEvent.class)
+    public void createBootstrapAdmin() {
+        if (bootstrapAdminEmail.isBlank() || bootstrapAdminPassword.isBlank()
+                || userEntityRepository.existsByEmail(bootstrapAdminEmail)) {
+            return;
+        }
+        userEntityRepository.save(UserEntity.builder()
+            .email(bootstrapAdminEmail)
+            .password(passwordHasher.hash(bootstrapAdminPassword))
+            .role(UserRole.ADMIN)
+            .build());
+        log.info("Created bootstrap admin {}", bootstrapAdminEmail);
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordHasher.hash("unknown-user");
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private static AuthUserDTO toDTO(UserEntity user) {
+        return new AuthUserDTO(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    private static byte[] tokenSecret(String configured) {
+        if (!configured.isBlank()) {
+            return Base64.getDecoder().decode(configured);
+        }
+        log.warn("aviascanner.auth.token-secret is not set, using a random key: tokens will not survive "
+            + "a restart or work across instances");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
 }
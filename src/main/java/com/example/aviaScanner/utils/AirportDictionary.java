@@ -0,0 +1,43 @@
+package com.example.aviaScanner.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns airport codes dense int ids in order of first appearance, so per-airport data can live
+ * in plain arrays indexed by id. Ids are never reused or removed; searches only accept three-letter
+ * codes, so there are at most 26^3 of them.
+ */
+public final class AirportDictionary {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] codes = new String[64];
+    private int size;
+
+    public int encode(String code) {
+        Integer id = ids.get(code);
+        return id != null ? id : ids.computeIfAbsent(code, this::assign);
+    }
+
+    /** The id of a known code, or -1. Never adds the code. */
+    public int find(String code) {
+        Integer id = ids.get(code);
+        return id != null ? id : -1;
+    }
+
+    public String decode(int id) {
+        return codes[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // called under the map's bin lock; the lock on this keeps ids dense across bins
+    private synchronized Integer assign(String code) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+        }
+        codes[size] = code;
+        return size++;
+    }
+}
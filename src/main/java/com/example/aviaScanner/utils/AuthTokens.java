@@ -0,0 +1,78 @@
+package com.example.aviaScanner.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Short-lived bearer tokens of the form {@code userId.expiresEpochSecond.signature}, signed with
+ * HMAC-SHA256. Verification needs only the shared secret, never the database.
+ */
+public final class AuthTokens {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    public record Token(String value, Instant expiresAt) {
+    }
+
+    private final Mac prototype;
+    private final Duration ttl;
+
+    public AuthTokens(byte[] secret, Duration ttl) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("token secret must be at least 32 bytes");
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+        this.ttl = ttl;
+    }
+
+    public Token issue(long userId, Instant now) {
+        Instant expiresAt = now.plus(ttl);
+        String payload = userId + "." + expiresAt.getEpochSecond();
+        return new Token(payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload)),
+            expiresAt);
+    }
+
+    /** Returns the user id of a well-formed, correctly signed and unexpired token. */
+    public OptionalLong verify(String token, Instant now) {
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = signatureStart > 0 ? token.lastIndexOf('.', signatureStart - 1) : -1;
+        if (expiryStart <= 0) {
+            return OptionalLong.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return OptionalLong.empty();
+            }
+            long expiresAt = Long.parseLong(payload, expiryStart + 1, payload.length(), 10);
+            if (now.getEpochSecond() >= expiresAt) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(Long.parseLong(payload, 0, expiryStart, 10));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    // Mac is not thread-safe; cloning the initialised prototype skips the provider lookup and key setup.
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " cannot be cloned", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.aviaScanner.utils;
+
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+
+// Strong ETags for user resources, derived from the optimistic-lock version.
+public final class ETags {
+    // matches no version, so a conditional write with it always fails its precondition
+    private static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    public static String of(AviaScannerUserDTO user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when there is no precondition.
+     * Weak tags, tag lists and foreign values can never match a strong ETag.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag, 1, tag.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+}
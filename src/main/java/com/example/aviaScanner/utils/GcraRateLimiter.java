@@ -0,0 +1,62 @@
+package com.example.aviaScanner.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key, kept as a single theoretical arrival time (GCRA) so admitting a request
+ * is one CAS on the key's AtomicLong. A bucket whose arrival time is in the past is full again
+ * and carries no state, which is what makes idle eviction lossless.
+ */
+public final class GcraRateLimiter {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int burst;
+
+    public GcraRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.burst = burst;
+    }
+
+    /**
+     * Takes cost tokens from the key's bucket. Returns 0 when admitted, otherwise the nanos to
+     * wait before the same request would be. Costs above the burst are capped at the burst.
+     */
+    public long tryAcquire(String key, int cost, long nowNanos) {
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+        long increment = emissionIntervalNanos * Math.min(Math.max(cost, 1), burst);
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + increment;
+            long wait = next - burstToleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely; returns how many were removed. A request racing
+     * the removal of its bucket is charged to the dropped bucket, i.e. goes free once.
+     */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> arrival.get() - nowNanos <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
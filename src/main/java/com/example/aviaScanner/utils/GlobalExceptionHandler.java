@@ -1,27 +1,65 @@
 package com.example.aviaScanner.utils;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.HttpStatus;
-import java.time.LocalDateTime;
+import org.springframework.http.MediaType;
 import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.exception.ApiException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException ex, HttpServletRequest request) {
+        return respond(ex.getStatus(), ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBody(MethodArgumentNotValidException ex, HttpServletRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({ConstraintViolationException.class, HandlerMethodValidationException.class,
+        MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class,
+        HttpMessageNotReadableException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(Exception ex, HttpServletRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, "Validation failed: " + ex.getMessage(), request);
+    }
+
+    // Last line of defence for unique-key races that were not translated by the service.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(DataIntegrityViolationException ex, HttpServletRequest request) {
+        return respond(HttpStatus.CONFLICT, "Request conflicts with existing data", request);
+    }
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleAllExceptions(
-            Exception ex, WebRequest request) {
-        
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setTimestamp(LocalDateTime.now());
-        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
-        errorResponse.setError("Bad Request");
-        errorResponse.setMessage(ex.getMessage());
-        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<ErrorResponse> handleAllExceptions(Exception ex, HttpServletRequest request) {
+        // Spring's own web exceptions (unknown route, wrong method, unsupported media type) carry their status
+        if (ex instanceof org.springframework.web.ErrorResponse webError) {
+            HttpStatus status = HttpStatus.resolve(webError.getStatusCode().value());
+            return respond(status != null ? status : HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+        }
+        log.error("Unhandled error on {}", request.getRequestURI(), ex);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Internal error", request);
+    }
+
+    // The content type is set rather than negotiated, so a client that asked for an event stream
+    // still gets the error instead of a 500 for an unacceptable representation.
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, String message, HttpServletRequest request) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(ErrorResponse.of(status, message, request.getRequestURI()));
     }
-}
\ No newline at end of file
+}
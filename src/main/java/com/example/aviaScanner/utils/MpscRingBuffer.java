@@ -0,0 +1,87 @@
+package com.example.aviaScanner.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * Each slot carries a sequence number telling producers and the consumer whose turn it is,
+ * so neither side takes a lock and a full buffer is detected without blocking.
+ */
+public final class MpscRingBuffer<E> {
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two, got " + capacity);
+        }
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Returns false when the buffer is full. */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /** Must only be called from the consumer thread. */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.lazySet(index, position + elements.length);
+        head = position + 1;
+        return element;
+    }
+
+    /** Must only be called from the consumer thread. */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.aviaScanner.utils;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Price alerts grouped by route, each route's alerts sorted by threshold. A fare matches every
+ * alert whose threshold is at or above its price, which is always a suffix of the route's arrays:
+ * matching is a binary search, and since alerts fire once, removing the matches is a truncation.
+ * Airports are dictionary-encoded, so a route is found with two array loads. An alert costs two
+ * longs. Not thread-safe; callers serialize access.
+ */
+public final class PriceAlertIndex {
+    // bytes per alert slot: threshold and id
+    private static final int SLOT_BYTES = Long.BYTES * 2;
+    private static final int MIN_CAPACITY = 4;
+
+    private final AirportDictionary airports = new AirportDictionary();
+    // [origin id][destination id]
+    private Route[][] routes = new Route[16][];
+    private long size;
+
+    private static final class Route {
+        long[] thresholds = new long[MIN_CAPACITY];
+        long[] ids = new long[MIN_CAPACITY];
+        int size;
+
+        // first index whose threshold is >= price, or size
+        int lowerBound(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (thresholds[middle] < price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        void resize(int capacity) {
+            thresholds = Arrays.copyOf(thresholds, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+    }
+
+    /** Alerts with equal thresholds keep their insertion order, so appending in sorted order is O(1). */
+    public void add(long alertId, String origin, String destination, long maxPriceMinor) {
+        Route route = route(airports.encode(origin), airports.encode(destination), true);
+        if (route.size == route.thresholds.length) {
+            route.resize(route.size * 2);
+        }
+        int position = route.size;
+        if (position > 0 && route.thresholds[position - 1] > maxPriceMinor) {
+            position = route.lowerBound(maxPriceMinor + 1);
+            System.arraycopy(route.thresholds, position, route.thresholds, position + 1, route.size - position);
+            System.arraycopy(route.ids, position, route.ids, position + 1, route.size - position);
+        }
+        route.thresholds[position] = maxPriceMinor;
+        route.ids[position] = alertId;
+        route.size++;
+        size++;
+    }
+
+    /** Returns false when the alert is not in the index, for example because it has already fired. */
+    public boolean remove(long alertId, String origin, String destination, long maxPriceMinor) {
+        Route route = find(origin, destination);
+        if (route == null) {
+            return false;
+        }
+        for (int i = route.lowerBound(maxPriceMinor); i < route.size && route.thresholds[i] == maxPriceMinor; i++) {
+            if (route.ids[i] == alertId) {
+                System.arraycopy(route.thresholds, i + 1, route.thresholds, i, route.size - i - 1);
+                System.arraycopy(route.ids, i + 1, route.ids, i, route.size - i - 1);
+                route.size--;
+                size--;
+                shrink(route);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every alert on the route whose threshold is at or above the price and passes its id
+     * to matched. Returns the number of alerts matched.
+     */
+    public int match(String origin, String destination, long priceMinor, LongConsumer matched) {
+        Route route = find(origin, destination);
+        if (route == null || route.size == 0 || route.thresholds[route.size - 1] < priceMinor) {
+            return 0;
+        }
+        int from = route.lowerBound(priceMinor);
+        for (int i = from; i < route.size; i++) {
+            matched.accept(route.ids[i]);
+        }
+        int count = route.size - from;
+        route.size = from;
+        size -= count;
+        shrink(route);
+        return count;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** Rough heap use of the alert arrays, excluding the dictionary's strings. */
+    public long estimatedBytes() {
+        long bytes = (long) routes.length * Integer.BYTES;
+        for (Route[] destinations : routes) {
+            if (destinations == null) {
+                continue;
+            }
+            bytes += (long) destinations.length * Integer.BYTES;
+            for (Route route : destinations) {
+                if (route != null) {
+                    bytes += (long) route.thresholds.length * SLOT_BYTES;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private Route find(String origin, String destination) {
+        int originId = airports.find(origin);
+        int destinationId = airports.find(destination);
+        return originId < 0 || destinationId < 0 ? null : route(originId, destinationId, false);
+    }
+
+    private Route route(int originId, int destinationId, boolean create) {
+        if (originId >= routes.length) {
+            if (!create) {
+                return null;
+            }
+            routes = Arrays.copyOf(routes, Math.max(originId + 1, routes.length * 2));
+        }
+        Route[] destinations = routes[originId];
+        if (destinations == null || destinationId >= destinations.length) {
+            if (!create) {
+                return null;
+            }
+            destinations = destinations == null
+                ? new Route[Math.max(destinationId + 1, 16)]
+                : Arrays.copyOf(destinations, Math.max(destinationId + 1, destinations.length * 2));
+            routes[originId] = destinations;
+        }
+        Route route = destinations[destinationId];
+        if (route == null && create) {
+            route = new Route();
+            destinations[destinationId] = route;
+        }
+        return route;
+    }
+
+    // gives memory back after a large match; halving at a quarter full keeps resizing amortized
+    private static void shrink(Route route) {
+        int capacity = route.thresholds.length;
+        if (capacity > MIN_CAPACITY && route.size < capacity / 4) {
+            route.resize(Math.max(MIN_CAPACITY, capacity / 2));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.aviaScanner.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cheapest fare seen per route, for "where can I fly cheaply from here" queries. Airports are
+ * dictionary-encoded, and each origin keeps parallel primitive arrays of its routes sorted by
+ * destination id, so an update is a binary search and a few array stores and a query is one scan
+ * over the origin's row. A row only holds the routes searched from its origin, never a slot per
+ * known airport. Entries older than the time to live, or for dates already past, are ignored by
+ * queries and dropped by {@link #evictExpired}.
+ */
+public final class RouteIndex {
+    // bytes per route slot: destination, price, observation time and date
+    private static final int SLOT_BYTES = Integer.BYTES * 2 + Long.BYTES * 2;
+    private static final int MIN_CAPACITY = 4;
+
+    private final AirportDictionary airports = new AirportDictionary();
+    // indexed by origin id; replaced by a larger copy when an origin id does not fit
+    private volatile AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(16);
+    private final long timeToLiveMillis;
+
+    public record Fare(String origin, String destination, long epochDay, long priceMinor) {
+    }
+
+    private static final class Row {
+        int[] destinations = new int[MIN_CAPACITY];
+        long[] prices = new long[MIN_CAPACITY];
+        long[] observedAt = new long[MIN_CAPACITY];
+        int[] epochDays = new int[MIN_CAPACITY];
+        int size;
+
+        // index of the destination's slot, or -(insertion point) - 1
+        int find(int destination) {
+            return Arrays.binarySearch(destinations, 0, size, destination);
+        }
+
+        void insert(int at, int destination) {
+            if (size == destinations.length) {
+                resize(size * 2);
+            }
+            System.arraycopy(destinations, at, destinations, at + 1, size - at);
+            System.arraycopy(prices, at, prices, at + 1, size - at);
+            System.arraycopy(observedAt, at, observedAt, at + 1, size - at);
+            System.arraycopy(epochDays, at, epochDays, at + 1, size - at);
+            destinations[at] = destination;
+            size++;
+        }
+
+        // keeps the live slots in order and gives back the room of the others
+        int evict(long todayEpochDay, long nowMillis, long timeToLiveMillis) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (epochDays[i] >= todayEpochDay && nowMillis - observedAt[i] <= timeToLiveMillis) {
+                    destinations[kept] = destinations[i];
+                    prices[kept] = prices[i];
+                    observedAt[kept] = observedAt[i];
+                    epochDays[kept] = epochDays[i];
+                    kept++;
+                }
+            }
+            int evicted = size - kept;
+            size = kept;
+            if (size <= destinations.length / 4 && destinations.length > MIN_CAPACITY) {
+                resize(Math.max(MIN_CAPACITY, size * 2));
+            }
+            return evicted;
+        }
+
+        private void resize(int capacity) {
+            destinations = Arrays.copyOf(destinations, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            observedAt = Arrays.copyOf(observedAt, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+    }
+
+    public RouteIndex(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Records the cheapest fare of a search. A newer fare for the same date replaces the stored
+     * one even when it is higher; a fare for another date only replaces it when cheaper or when
+     * the stored one has expired.
+     */
+    public void record(String origin, String destination, long epochDay, long priceMinor, long nowMillis) {
+        int originId = airports.encode(origin);
+        int destinationId = airports.encode(destination);
+        Row row = row(originId);
+        if (row == null) {
+            row = createRow(originId);
+        }
+        synchronized (row) {
+            int slot = row.find(destinationId);
+            if (slot < 0) {
+                slot = -slot - 1;
+                row.insert(slot, destinationId);
+            } else if (row.epochDays[slot] != epochDay
+                    && priceMinor >= row.prices[slot]
+                    && nowMillis - row.observedAt[slot] <= timeToLiveMillis) {
+                return;
+            }
+            row.prices[slot] = priceMinor;
+            row.epochDays[slot] = (int) epochDay;
+            row.observedAt[slot] = nowMillis;
+        }
+    }
+
+    /** Cheapest live fare to each destination from origin, cheapest first. */
+    public List<Fare> cheapestFrom(String origin, long todayEpochDay, long nowMillis, int limit) {
+        int originId = airports.find(origin);
+        Row row = originId < 0 ? null : row(originId);
+        if (row == null) {
+            return List.of();
+        }
+        List<Fare> fares = new ArrayList<>();
+        synchronized (row) {
+            for (int i = 0; i < row.size; i++) {
+                if (row.epochDays[i] >= todayEpochDay && nowMillis - row.observedAt[i] <= timeToLiveMillis) {
+                    fares.add(new Fare(origin, airports.decode(row.destinations[i]), row.epochDays[i],
+                        row.prices[i]));
+                }
+            }
+        }
+        fares.sort((a, b) -> Long.compare(a.priceMinor(), b.priceMinor()));
+        return fares.size() > limit ? fares.subList(0, limit) : fares;
+    }
+
+    private Row row(int originId) {
+        AtomicReferenceArray<Row> current = rows;
+        return originId < current.length() ? current.get(originId) : null;
+    }
+
+    private synchronized Row createRow(int originId) {
+        AtomicReferenceArray<Row> current = rows;
+        if (originId >= current.length()) {
+            AtomicReferenceArray<Row> grown = new AtomicReferenceArray<>(Math.max(originId + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            rows = grown;
+            current = grown;
+        }
+        Row row = current.get(originId);
+        if (row == null) {
+            row = new Row();
+            current.set(originId, row);
+        }
+        return row;
+    }
+
+    /** Drops the routes queries would ignore; returns how many. */
+    public long evictExpired(long todayEpochDay, long nowMillis) {
+        long evicted = 0;
+        AtomicReferenceArray<Row> current = rows;
+        for (int i = 0; i < current.length(); i++) {
+            Row row = current.get(i);
+            if (row != null) {
+                synchronized (row) {
+                    evicted += row.evict(todayEpochDay, nowMillis, timeToLiveMillis);
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int airports() {
+        return airports.size();
+    }
+
+    public long routes() {
+        long routes = 0;
+        AtomicReferenceArray<Row> current = rows;
+        for (int i = 0; i < current.length(); i++) {
+            Row row = current.get(i);
+            if (row != null) {
+                synchronized (row) {
+                    routes += row.size;
+                }
+            }
+        }
+        return routes;
+    }
+
+    /** Rough heap use of the rows, excluding the dictionary's strings. */
+    public long estimatedBytes() {
+        AtomicReferenceArray<Row> current = rows;
+        long bytes = (long) current.length() * Integer.BYTES;
+        for (int i = 0; i < current.length(); i++) {
+            Row row = current.get(i);
+            if (row != null) {
+                synchronized (row) {
+                    bytes += (long) row.destinations.length * SLOT_BYTES;
+                }
+            }
+        }
+        return bytes;
+    }
+}
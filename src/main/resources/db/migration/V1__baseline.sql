@@ -0,0 +1,89 @@
+-- Creates the schema, or upgrades one built by ddl-auto=update before the migrations existed:
+-- such databases are baselined at version 0 (spring.flyway.baseline-on-migrate), so this runs on
+-- them too. They hold app_scanner_user with an IDENTITY id and users, and depending on the app
+-- version that built them some of the objects below, hence IF NOT EXISTS throughout.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- V3 moves it past the ids a legacy IDENTITY column already assigned
+CREATE SEQUENCE IF NOT EXISTS app_scanner_user_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS app_scanner_user (
+    id bigint PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    email varchar(255) NOT NULL CONSTRAINT uk_app_scanner_user_email UNIQUE,
+    phone varchar(255) NOT NULL,
+    location varchar(255) NOT NULL,
+    birth_date date,
+    version bigint NOT NULL DEFAULT 0,
+    -- type-ahead search over name, email and location
+    search_text text GENERATED ALWAYS AS (lower(name || ' ' || email || ' ' || location)) STORED
+);
+-- ids now come from app_scanner_user_seq; the legacy table has no version or search_text
+ALTER TABLE app_scanner_user ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE app_scanner_user ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE app_scanner_user ADD COLUMN IF NOT EXISTS search_text text
+    GENERATED ALWAYS AS (lower(name || ' ' || email || ' ' || location)) STORED;
+CREATE INDEX IF NOT EXISTS idx_app_scanner_user_search_text
+    ON app_scanner_user USING gist (search_text gist_trgm_ops);
+
+CREATE SEQUENCE IF NOT EXISTS app_scanner_user_audit_seq START WITH 1 INCREMENT BY 500;
+
+CREATE TABLE IF NOT EXISTS app_scanner_user_audit (
+    id bigint PRIMARY KEY,
+    user_id bigint NOT NULL,
+    action varchar(16) NOT NULL CHECK (action IN ('CREATE', 'UPDATE', 'DELETE')),
+    changes text,
+    changed_at timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX IF NOT EXISTS app_scanner_user_audit_user_idx ON app_scanner_user_audit (user_id, id);
+
+-- rollups behind GET /api/users/stats/*, refreshed periodically by AviaScanerUserStatsService;
+-- the unique indexes are required for REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE MATERIALIZED VIEW IF NOT EXISTS app_scanner_user_location_stats AS
+    SELECT location, count(*) AS user_count FROM app_scanner_user GROUP BY location;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_app_scanner_user_location_stats
+    ON app_scanner_user_location_stats (location);
+CREATE MATERIALIZED VIEW IF NOT EXISTS app_scanner_user_birth_year_stats AS
+    SELECT CAST(extract(year FROM birth_date) AS integer) AS birth_year, count(*) AS user_count
+    FROM app_scanner_user WHERE birth_date IS NOT NULL GROUP BY 1;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_app_scanner_user_birth_year_stats
+    ON app_scanner_user_birth_year_stats (birth_year);
+
+-- transactional outbox behind GET /api/users/changes; rows are written in the same statement or
+-- transaction as the user change, change_seq is assigned later in commit order by the relay
+CREATE TABLE IF NOT EXISTS app_scanner_user_outbox (
+    id bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    change_seq bigint UNIQUE,
+    user_id bigint NOT NULL,
+    change_type varchar(16) NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_app_scanner_user_outbox_pending
+    ON app_scanner_user_outbox (id) WHERE change_seq IS NULL;
+
+-- Idempotency-Key results for POST /api/users, written in the creating transaction so a retry
+-- either waits for the first attempt or replays its stored outcome
+CREATE TABLE IF NOT EXISTS app_scanner_user_idempotency (
+    idempotency_key varchar(255) PRIMARY KEY,
+    fingerprint varchar(64) NOT NULL,
+    outcome varchar(32),
+    user_id bigint,
+    response_body text,
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_app_scanner_user_idempotency_created_at
+    ON app_scanner_user_idempotency (created_at);
+
+-- API accounts, see UserEntityService
+CREATE TABLE IF NOT EXISTS users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email varchar(255) NOT NULL CONSTRAINT uk_users_email UNIQUE,
+    password varchar(255) NOT NULL,
+    role varchar(16) NOT NULL CHECK (role IN ('USER', 'ADMIN'))
+);
+-- the legacy table has nullable columns and no unique email; the old app never wrote to it
+ALTER TABLE users ALTER COLUMN email SET NOT NULL;
+ALTER TABLE users ALTER COLUMN password SET NOT NULL;
+ALTER TABLE users ALTER COLUMN role SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email ON users (email);
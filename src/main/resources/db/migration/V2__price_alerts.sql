@@ -0,0 +1,14 @@
+-- one-shot price alerts, see PriceAlertService; prices are in aviascanner.flights.currency.
+-- Loaded into memory at startup in route and threshold order, which the index appends cheaply.
+CREATE SEQUENCE price_alert_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE price_alert (
+    id bigint PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES app_scanner_user (id) ON DELETE CASCADE,
+    origin varchar(3) NOT NULL,
+    destination varchar(3) NOT NULL,
+    max_price numeric(12, 2) NOT NULL CHECK (max_price > 0),
+    created_at timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX idx_price_alert_user_id ON price_alert (user_id, id);
+CREATE INDEX idx_price_alert_route ON price_alert (origin, destination, max_price, id);
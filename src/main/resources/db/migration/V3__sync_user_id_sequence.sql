@@ -0,0 +1,9 @@
+-- Databases that predate the pooled sequence ids still hold IDENTITY-assigned ids with
+-- app_scanner_user_seq at its start. Hibernate's pooled optimizer uses the 50 values up to each
+-- value it fetches, so the next fetch must be at least max(id) + 50 to never reissue an id.
+-- The sequence only moves forward. V1 creates it on every path it knows of; a database that got
+-- here some other way still gets one rather than failing the migration.
+CREATE SEQUENCE IF NOT EXISTS app_scanner_user_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('app_scanner_user_seq', greatest(
+    (SELECT coalesce(max(id), 0) + 50 FROM app_scanner_user),
+    (SELECT last_value FROM app_scanner_user_seq)));
@@ -0,0 +1,86 @@
+package com.example.aviaScanner.DTO;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson (de)serialization of the user DTO, including its dd.MM.yyyy
+ * birth date, and Bean Validation of valid and invalid payloads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AviaScannerUserDTOBenchmark {
+    private AviaScannerUserDTO valid;
+    private AviaScannerUserDTO invalidPhone;
+    private byte[] json;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() throws Exception {
+        valid = AviaScannerUserDTO.builder()
+            .id(42L)
+            .name("Benchmark_User")
+            .email("bench@example.com")
+            .phone("+79609062424")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1990, 1, 1))
+            .build();
+        invalidPhone = AviaScannerUserDTO.builder()
+            .name("Benchmark_User")
+            .email("bench@example.com")
+            .phone("12345")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1990, 1, 1))
+            .build();
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(AviaScannerUserDTO.class);
+        reader = objectMapper.readerFor(AviaScannerUserDTO.class);
+        json = writer.writeValueAsBytes(valid);
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(valid);
+    }
+
+    @Benchmark
+    public AviaScannerUserDTO deserialize() throws Exception {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AviaScannerUserDTO>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AviaScannerUserDTO>> validateInvalidPhone() {
+        return validator.validate(invalidPhone);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.aviaScanner.DTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding of a 10k user page as JSON, gzipped JSON, CBOR and Smile.
+ * Payload sizes are printed once per fork during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AviaScannerUserPayloadBenchmark {
+    private static final int USERS = 10_000;
+
+    private AviaScannerUserPageDTO page;
+    private ObjectWriter jsonWriter;
+    private ObjectWriter cborWriter;
+    private ObjectWriter smileWriter;
+    private ObjectReader jsonReader;
+    private ObjectReader cborReader;
+    private ObjectReader smileReader;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<AviaScannerUserDTO> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(AviaScannerUserDTO.builder()
+                .id((long) i + 1)
+                .name("Benchmark_User_" + i)
+                .email("user" + i + "@example.com")
+                .phone("+7960" + (1_000_000 + i))
+                .location(i % 3 == 0 ? "Moscow" : "Saint Petersburg")
+                .birthDate(LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28))
+                .build());
+        }
+        page = new AviaScannerUserPageDTO(users, (long) USERS);
+
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        jsonWriter = jsonMapper.writerFor(AviaScannerUserPageDTO.class);
+        cborWriter = cborMapper.writerFor(AviaScannerUserPageDTO.class);
+        smileWriter = smileMapper.writerFor(AviaScannerUserPageDTO.class);
+        jsonReader = jsonMapper.readerFor(AviaScannerUserPageDTO.class);
+        cborReader = cborMapper.readerFor(AviaScannerUserPageDTO.class);
+        smileReader = smileMapper.readerFor(AviaScannerUserPageDTO.class);
+
+        json = jsonWriter.writeValueAsBytes(page);
+        cbor = cborWriter.writeValueAsBytes(page);
+        smile = smileWriter.writeValueAsBytes(page);
+        System.out.printf("%npayload bytes for %d users: json=%d json+gzip=%d cbor=%d smile=%d%n",
+            USERS, json.length, writeJsonGzip().length, cbor.length, smile.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return jsonWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeJsonGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json != null ? json.length / 4 : 8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            jsonWriter.writeValue(gzip, page);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws IOException {
+        return cborWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws IOException {
+        return smileWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public AviaScannerUserPageDTO readJson() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public AviaScannerUserPageDTO readCbor() throws IOException {
+        return cborReader.readValue(cbor);
+    }
+
+    @Benchmark
+    public AviaScannerUserPageDTO readSmile() throws IOException {
+        return smileReader.readValue(smile);
+    }
+}
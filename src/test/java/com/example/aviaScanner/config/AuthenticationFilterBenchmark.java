@@ -0,0 +1,114 @@
+package com.example.aviaScanner.config;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import com.example.aviaScanner.DTO.CredentialsDTO;
+import com.example.aviaScanner.model.UserEntity;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.repository.UserEntityRepository;
+import com.example.aviaScanner.service.UserEntityService;
+import com.example.aviaScanner.utils.PasswordHasher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * What authentication adds to a warm GET /api/users/{id}: the same request passed to the chain
+ * directly and through AuthenticationFilter, with the role served by the Spring cache proxy
+ * just like in the application. The repository is a mock, so any database access would show.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationFilterBenchmark {
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "benchmark-password";
+
+    // registered explicitly rather than as @Configuration, so @SpringBootTest scanning skips it
+    @EnableCaching
+    static class BenchmarkConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USER_ROLES);
+        }
+
+        @Bean
+        UserEntityRepository userEntityRepository() {
+            UserEntityRepository repository = mock(UserEntityRepository.class);
+            UserEntity user = new UserEntity(7L, EMAIL, new PasswordHasher(1000).hash(PASSWORD), UserRole.USER);
+            when(repository.findByEmail(anyString())).thenReturn(Optional.of(user));
+            when(repository.findRoleById(anyLong())).thenReturn(Optional.of(UserRole.USER));
+            return repository;
+        }
+
+        @Bean
+        UserEntityService userEntityService(UserEntityRepository userEntityRepository) {
+            return new UserEntityService(userEntityRepository, 1000,
+                Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(15), "", "");
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+    private AuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        UserEntityService userEntityService = context.getBean(UserEntityService.class);
+        filter = new AuthenticationFilter(userEntityService, new ObjectMapper());
+        authorization = "Bearer " + userEntityService.login(new CredentialsDTO(EMAIL, PASSWORD)).orElseThrow().getToken();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(), response, (request, ignored) -> { });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("request was rejected with " + response.getStatus());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    @Benchmark
+    public void withoutAuthentication(Blackhole blackhole) throws Exception {
+        FilterChain chain = (request, response) -> blackhole.consume(request);
+        chain.doFilter(request(), new MockHttpServletResponse());
+    }
+
+    @Benchmark
+    public int withAuthentication(Blackhole blackhole) throws Exception {
+        FilterChain chain = (request, response) -> blackhole.consume(request);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, chain);
+        return response.getStatus();
+    }
+}
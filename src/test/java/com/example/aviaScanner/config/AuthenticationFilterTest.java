@@ -0,0 +1,137 @@
+package com.example.aviaScanner.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.repository.UserEntityRepository;
+import com.example.aviaScanner.service.UserEntityService;
+import com.example.aviaScanner.utils.AuthTokens;
+
+class AuthenticationFilterTest {
+    private static final byte[] SECRET = new byte[32];
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final long USER_ID = 1;
+    private static final long ADMIN_ID = 2;
+
+    // stands in for the real controllers: every route answers 200 once the filter lets it through
+    @RestController
+    static class Endpoints {
+        @GetMapping("/api/users/{id}")
+        String getUser() {
+            return "user";
+        }
+
+        @PostMapping("/api/users")
+        String createUser() {
+            return "created";
+        }
+
+        @PostMapping("/api/users/batch-get")
+        String batchGet() {
+            return "users";
+        }
+
+        @PostMapping("/api/users/{id}/price-alerts")
+        String createAlert() {
+            return "alert";
+        }
+    }
+
+    private final AuthTokens authTokens = new AuthTokens(SECRET, TTL);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserEntityRepository repository = mock(UserEntityRepository.class);
+        when(repository.findRoleById(USER_ID)).thenReturn(Optional.of(UserRole.USER));
+        when(repository.findRoleById(ADMIN_ID)).thenReturn(Optional.of(UserRole.ADMIN));
+        UserEntityService userEntityService = new UserEntityService(repository, 1000,
+            Base64.getEncoder().encodeToString(SECRET), TTL, "", "");
+        mockMvc = MockMvcBuilders.standaloneSetup(new Endpoints())
+            .addFilters(new AuthenticationFilter(userEntityService, Jackson2ObjectMapperBuilder.json().build()))
+            .build();
+    }
+
+    private String bearer(long userId, Instant issuedAt) {
+        return "Bearer " + authTokens.issue(userId, issuedAt).value();
+    }
+
+    @Test
+    void whenTokenMissing_thenUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/1"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+    }
+
+    @Test
+    void whenTokenClaimsAnotherUser_thenUnauthorized() throws Exception {
+        String forged = bearer(USER_ID, Instant.now()).replace("Bearer " + USER_ID + ".", "Bearer " + ADMIN_ID + ".");
+
+        mockMvc.perform(post("/api/users").header(HttpHeaders.AUTHORIZATION, forged))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void whenTokenExpired_thenUnauthorized() throws Exception {
+        String expired = bearer(USER_ID, Instant.now().minus(TTL).minusSeconds(1));
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.AUTHORIZATION, expired))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void whenUserReads_thenAllowed() throws Exception {
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID, Instant.now())))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenUserWrites_thenForbidden() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID, Instant.now())))
+            .andExpect(status().isForbidden())
+            .andReturn();
+
+        assertTrue(result.getResponse().getContentAsString().contains("Admin role required"));
+    }
+
+    @Test
+    void whenAdminWrites_thenAllowed() throws Exception {
+        mockMvc.perform(post("/api/users").header(HttpHeaders.AUTHORIZATION, bearer(ADMIN_ID, Instant.now())))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenUserPostsReadOnlyQuery_thenAllowed() throws Exception {
+        mockMvc.perform(post("/api/users/batch-get")
+                .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID, Instant.now())))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenUserCreatesPriceAlert_thenLeftToController() throws Exception {
+        mockMvc.perform(post("/api/users/1/price-alerts")
+                .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID, Instant.now())))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.aviaScanner.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.aviaScanner.model.UserRole;
+import com.example.aviaScanner.repository.UserEntityRepository;
+import com.example.aviaScanner.service.UserEntityService;
+import com.example.aviaScanner.utils.AuthTokens;
+
+class ReactiveAuthenticationFilterTest {
+    private static final byte[] SECRET = new byte[32];
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final long USER_ID = 1;
+    private static final long ADMIN_ID = 2;
+
+    // stands in for the reactive controllers: every route answers 200 once the filter lets it through
+    @RestController
+    static class Endpoints {
+        @GetMapping("/api/users/{id}")
+        String getUser() {
+            return "user";
+        }
+
+        @DeleteMapping("/api/users/{id}")
+        String deleteUser() {
+            return "deleted";
+        }
+
+        @PostMapping("/api/users/batch-get")
+        String batchGet() {
+            return "users";
+        }
+    }
+
+    private final AuthTokens authTokens = new AuthTokens(SECRET, TTL);
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        UserEntityRepository repository = mock(UserEntityRepository.class);
+        when(repository.findRoleById(USER_ID)).thenReturn(Optional.of(UserRole.USER));
+        when(repository.findRoleById(ADMIN_ID)).thenReturn(Optional.of(UserRole.ADMIN));
+        UserEntityService userEntityService = new UserEntityService(repository, 1000,
+            Base64.getEncoder().encodeToString(SECRET), TTL, "", "");
+        client = WebTestClient.bindToController(new Endpoints())
+            .webFilter(new ReactiveAuthenticationFilter(userEntityService, Jackson2ObjectMapperBuilder.json().build()))
+            .build();
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + authTokens.issue(userId, Instant.now()).value();
+    }
+
+    @Test
+    void whenTokenMissing_thenUnauthorized() {
+        client.delete().uri("/api/users/1").exchange()
+            .expectStatus().isUnauthorized()
+            .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+            .expectBody().jsonPath("$.message").isEqualTo("Missing, invalid or expired token");
+    }
+
+    @Test
+    void whenTokenExpired_thenUnauthorized() {
+        String expired = "Bearer " + authTokens.issue(USER_ID, Instant.now().minus(TTL).minusSeconds(1)).value();
+
+        client.get().uri("/api/users/1").header(HttpHeaders.AUTHORIZATION, expired).exchange()
+            .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void whenUserReads_thenAllowed() {
+        client.get().uri("/api/users/1").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)).exchange()
+            .expectStatus().isOk();
+        client.post().uri("/api/users/batch-get").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)).exchange()
+            .expectStatus().isOk();
+    }
+
+    @Test
+    void whenUserWrites_thenForbidden() {
+        client.delete().uri("/api/users/1").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)).exchange()
+            .expectStatus().isForbidden()
+            .expectBody().jsonPath("$.message").isEqualTo("Admin role required");
+    }
+
+    @Test
+    void whenAdminWrites_thenAllowed() {
+        client.delete().uri("/api/users/1").header(HttpHeaders.AUTHORIZATION, bearer(ADMIN_ID)).exchange()
+            .expectStatus().isOk();
+    }
+}
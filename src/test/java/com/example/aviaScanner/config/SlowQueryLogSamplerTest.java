@@ -0,0 +1,68 @@
+package com.example.aviaScanner.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlowQueryLogSamplerTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLogSampler.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SlowQueryLogSampler sampler;
+
+    private SlowQueryLogSampler sampler(int samplePercent) {
+        appender.start();
+        logger.addAppender(appender);
+        sampler = new SlowQueryLogSampler(meterRegistry, samplePercent);
+        sampler.afterPropertiesSet();
+        return sampler;
+    }
+
+    @AfterEach
+    void tearDown() {
+        sampler.destroy();
+        logger.detachAppender(appender);
+    }
+
+    private double slowQueries() {
+        return meterRegistry.get("aviascanner.jpa.slow.queries").counter().count();
+    }
+
+    @Test
+    void whenNothingIsSampled_thenSlowQueriesAreOnlyCounted() {
+        sampler(0);
+        for (int i = 0; i < 10; i++) {
+            logger.info("Slow query took 60 milliseconds [select 1]");
+        }
+
+        assertTrue(appender.list.isEmpty());
+        assertEquals(10, slowQueries());
+        // Hibernate asks before building the message; the answer must not depend on the sample
+        assertTrue(logger.isInfoEnabled());
+    }
+
+    @Test
+    void whenEverythingIsSampled_thenEverySlowQueryIsLogged() {
+        sampler(100);
+        for (int i = 0; i < 10; i++) {
+            logger.info("Slow query took 60 milliseconds [select 1]");
+        }
+
+        assertEquals(10, appender.list.size());
+        assertEquals(10, slowQueries());
+    }
+
+    @Test
+    void whenAnotherLoggerLogs_thenItIsNotCounted() {
+        sampler(0);
+        ((Logger) LoggerFactory.getLogger("org.hibernate.SQL")).info("select 1");
+
+        assertEquals(0, slowQueries());
+    }
+}
@@ -2,15 +2,23 @@ package com.example.aviaScanner.controller;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.example.aviaScanner.DTO.AviaScannerUserDTO;
 import com.example.aviaScanner.DTO.ErrorResponse;
+import com.example.aviaScanner.DTO.AviaScannerUserBatchDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserBatchGetRequestDTO;
 import com.example.aviaScanner.model.AviaScanerUserEntity;
 import com.example.aviaScanner.repository.AviaScanerUserRepository;
 import io.restassured.http.ContentType;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.ArrayList;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -305,6 +313,363 @@ public class AviaScannerControllerIntegrationTest {
         assertErrorResponseNotFoundFields(errorResponse, 404, "/api/users/100");
     }
 
+    @Test
+    void whenBatchGetUsers_thenFoundUsersAndMissingIdsReturned() {
+        log.info("Testing batch get of users");
+        AviaScanerUserEntity first = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Batch_User_1")
+            .email("batch1@example.com")
+            .phone("+79609062426")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1991, 2, 3))
+            .build());
+        AviaScanerUserEntity second = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Batch_User_2")
+            .email("batch2@example.com")
+            .phone("+79609062427")
+            .location("Kazan")
+            .birthDate(LocalDate.of(1992, 3, 4))
+            .build());
+        long missingId = second.getId() + 100_000;
+
+        AviaScannerUserBatchDTO batch = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(new AviaScannerUserBatchGetRequestDTO(List.of(second.getId(), missingId, first.getId())))
+        .when()
+            .post("/api/users/batch-get")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .as(AviaScannerUserBatchDTO.class);
+
+        assertThat(batch.getUsers())
+            .extracting(AviaScannerUserDTO::getId)
+            .containsExactly(second.getId(), first.getId());
+        assertThat(batch.getMissingIds()).containsExactly(missingId);
+
+        aviaScanerUserRepository.deleteAllById(List.of(first.getId(), second.getId()));
+    }
+
+    @Test
+    void whenUserCreatedAndUpdated_thenChangesAppearInFeedInOrder() {
+        log.info("Testing the user change feed");
+        AviaScannerUserDTO request = AviaScannerUserDTO.builder()
+            .name("Feed_User")
+            .email("feed@example.com")
+            .phone("+79609062428")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1993, 4, 5))
+            .build();
+        Long id = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .jsonPath()
+            .getLong("id");
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(Map.of("location", "Kazan"))
+        .when()
+            .patch("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        List<String> changeTypes = new ArrayList<>();
+        long since = 0;
+        for (int attempt = 0; attempt < 20 && changeTypes.size() < 2; attempt++) {
+            JsonPath page = given()
+                .port(port)
+                .queryParam("since", since)
+                .queryParam("waitMs", 5000)
+            .when()
+                .get("/api/users/changes")
+            .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .jsonPath();
+            List<Long> userIds = page.getList("changes.userId", Long.class);
+            List<String> types = page.getList("changes.changeType", String.class);
+            for (int i = 0; i < userIds.size(); i++) {
+                if (id.equals(userIds.get(i))) {
+                    changeTypes.add(types.get(i));
+                }
+            }
+            since = page.getLong("nextSince");
+        }
+
+        assertThat(changeTypes).containsExactly("CREATE", "UPDATE");
+
+        aviaScanerUserRepository.deleteById(id);
+    }
+
+    @Test
+    void whenCreateUserWithTakenEmail_thenReturnConflict() {
+        log.info("Testing user creation with an email that is already taken");
+        AviaScanerUserEntity existing = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Conflict_User")
+            .email("conflict@example.com")
+            .phone("+79609062429")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1994, 5, 6))
+            .build());
+
+        ErrorResponse errorResponse = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(AviaScannerUserDTO.builder()
+                .name("Conflict_User")
+                .email("conflict@example.com")
+                .phone("+79609062430")
+                .location("Kazan")
+                .birthDate(LocalDate.of(1995, 6, 7))
+                .build())
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.CONFLICT.value())
+            .header("Location", "/api/users/" + existing.getId())
+            .extract()
+            .as(ErrorResponse.class);
+
+        assertEquals(409, errorResponse.getStatus());
+        assertEquals("Conflict", errorResponse.getError());
+        assertEquals("/api/users", errorResponse.getPath());
+        assertEquals(existing.getId(), errorResponse.getExistingId());
+
+        aviaScanerUserRepository.deleteById(existing.getId());
+    }
+
+    @Test
+    void whenConditionalRequests_thenNotModifiedAndPreconditionFailedReturned() {
+        log.info("Testing ETag based conditional requests");
+        Long id = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Etag_User")
+            .email("etag@example.com")
+            .phone("+79609062431")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1996, 7, 8))
+            .build()).getId();
+
+        String etag = given()
+            .port(port)
+        .when()
+            .get("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .header("ETag");
+        assertEquals("\"0\"", etag);
+
+        given()
+            .port(port)
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        String updatedEtag = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(Map.of("location", "Kazan"))
+        .when()
+            .patch("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .header("ETag");
+        assertEquals("\"1\"", updatedEtag);
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(Map.of("location", "Sochi"))
+        .when()
+            .patch("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        given()
+            .port(port)
+            .header("If-Match", etag)
+        .when()
+            .delete("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        given()
+            .port(port)
+            .header("If-Match", updatedEtag)
+        .when()
+            .delete("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value());
+        assertFalse(aviaScanerUserRepository.existsById(id));
+    }
+
+    @Test
+    void whenCreateUserRetriedWithIdempotencyKey_thenStoredResultReplayed() {
+        log.info("Testing idempotent user creation");
+        AviaScannerUserDTO request = AviaScannerUserDTO.builder()
+            .name("Idempotent_User")
+            .email("idempotent@example.com")
+            .phone("+79609062432")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1997, 8, 9))
+            .build();
+
+        AviaScannerUserDTO created = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", "create-idempotent-user")
+            .body(request)
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .as(AviaScannerUserDTO.class);
+
+        AviaScannerUserDTO replayed = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", "create-idempotent-user")
+            .body(request)
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .header("Idempotent-Replayed", "true")
+            .extract()
+            .as(AviaScannerUserDTO.class);
+
+        assertEquals(created.getId(), replayed.getId());
+        assertThat(aviaScanerUserRepository.findAllByName("Idempotent_User")).hasSize(1);
+
+        request.setLocation("Kazan");
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", "create-idempotent-user")
+            .body(request)
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value());
+
+        aviaScanerUserRepository.deleteById(created.getId());
+    }
+
+    @Test
+    void whenPatchWithInvalidPhone_thenReturnBadRequestAndUserUnchanged() {
+        log.info("Testing PATCH validation of touched fields");
+        AviaScanerUserEntity user = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Patch_Validation_User")
+            .email("patch-validation@example.com")
+            .phone("+79609062433")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1998, 9, 10))
+            .build());
+
+        ErrorResponse errorResponse = given()
+            .port(port)
+            .contentType("application/merge-patch+json")
+            .body(Map.of("phone", "12345", "location", "Kazan"))
+        .when()
+            .patch("/api/users/" + user.getId())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value())
+            .extract()
+            .as(ErrorResponse.class);
+
+        assertTrue(errorResponse.getMessage().contains("phone"));
+        AviaScanerUserEntity unchanged = aviaScanerUserRepository.findById(user.getId()).orElseThrow();
+        assertEquals("+79609062433", unchanged.getPhone());
+        assertEquals("Moscow", unchanged.getLocation());
+
+        aviaScanerUserRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void whenClientExceedsQuota_thenTooManyRequestsWithRetryAfter() throws InterruptedException {
+        log.info("Testing per-client rate limit");
+        // auth is off, so every test shares the loopback address's bucket; a list page costs 10 of
+        // the 200 burst tokens
+        // the bucket refills between requests, so the rejected response itself is checked
+        Response response = null;
+        for (int i = 0; i < 50
+                && (response == null || response.statusCode() != HttpStatus.TOO_MANY_REQUESTS.value()); i++) {
+            response = given()
+                .port(port)
+            .when()
+                .get("/api/users")
+            .then()
+                .extract()
+                .response();
+        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.statusCode());
+        assertNotNull(response.header("Retry-After"));
+        assertEquals("/api/users", response.as(ErrorResponse.class).getPath());
+
+        // the burst refills at 100 permits per second; give it back before the next test
+        Thread.sleep(2_000);
+    }
+
+    @Test
+    void whenAccountRegistered_thenLoginIssuesBearerToken() {
+        log.info("Testing account registration and login");
+        Map<String, String> credentials = Map.of("email", "account@example.com", "password", "long-enough-pw");
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(credentials)
+        .when()
+            .post("/api/auth/register")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("role", equalTo("USER"));
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(credentials)
+        .when()
+            .post("/api/auth/register")
+        .then()
+            .statusCode(HttpStatus.CONFLICT.value());
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(Map.of("email", "account@example.com", "password", "wrong-password"))
+        .when()
+            .post("/api/auth/login")
+        .then()
+            .statusCode(HttpStatus.UNAUTHORIZED.value())
+            .header("WWW-Authenticate", "Bearer");
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(credentials)
+        .when()
+            .post("/api/auth/login")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("tokenType", equalTo("Bearer"))
+            .body("token", notNullValue());
+    }
+
     private void logDatabaseState() {
         List<AviaScanerUserEntity> allUsers = aviaScanerUserRepository.findAll();
         log.info("Total users in database: {}", allUsers.size());
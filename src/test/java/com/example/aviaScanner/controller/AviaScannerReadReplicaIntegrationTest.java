@@ -0,0 +1,189 @@
+package com.example.aviaScanner.controller;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Two independent containers stand in for a primary and its replica. Nothing replicates between
+// them, so which one served a read shows in the data it returned.
+@Slf4j
+@SpringBootTest(
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {
+        "aviascanner.users.audit.enabled=false",
+        "aviascanner.users.changes.relay.enabled=false",
+        "aviascanner.datasource.replicas.enabled=true",
+        "aviascanner.datasource.replicas.lag-check-interval-ms=200",
+        "aviascanner.auth.enabled=true",
+        "aviascanner.auth.bootstrap-admin.email=" + AviaScannerReadReplicaIntegrationTest.WRITER,
+        "aviascanner.auth.bootstrap-admin.password=" + AviaScannerReadReplicaIntegrationTest.PASSWORD
+    })
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+public class AviaScannerReadReplicaIntegrationTest {
+    private static final String REPLICA_ONLY_EMAIL = "replica-only@example.com";
+    private static final String PRIMARY_EMAIL = "written-to-primary@example.com";
+    // clients are told apart by their user: the writer is the bootstrap admin, the reader registers
+    static final String WRITER = "writer@example.com";
+    static final String READER = "reader@example.com";
+    static final String PASSWORD = "long-enough-pw";
+    private static final Map<String, String> tokens = new HashMap<>();
+
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:latest")
+        .withDatabaseName("avia_test")
+        .withUsername("postgres")
+        .withPassword("1234");
+
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:latest")
+        .withDatabaseName("avia_test")
+        .withUsername("postgres")
+        .withPassword("1234");
+
+    @LocalServerPort
+    private Integer port;
+
+    @BeforeAll
+    static void beforeAll() throws SQLException {
+        log.info("Starting primary and replica PostgreSQL containers");
+        primary.start();
+        replica.start();
+        Flyway.configure()
+            .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+            .load()
+            .migrate();
+        try (Connection connection = DriverManager.getConnection(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+                Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO app_scanner_user (id, name, email, phone, location, birth_date, version) "
+                + "VALUES (nextval('app_scanner_user_seq'), 'Replica_User', '" + REPLICA_ONLY_EMAIL + "', "
+                + "'+79609062424', 'Moscow', DATE '1990-01-01', 0)");
+        }
+    }
+
+    @AfterAll
+    static void afterAll() {
+        log.info("Stopping PostgreSQL containers");
+        replica.stop();
+        primary.stop();
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("aviascanner.datasource.replicas.urls", replica::getJdbcUrl);
+    }
+
+    private RequestSpecification asClient(String email) {
+        String token = tokens.computeIfAbsent(email, this::login);
+        return given()
+            .port(port)
+            .header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String email) {
+        Map<String, String> credentials = Map.of("email", email, "password", PASSWORD);
+        if (!email.equals(WRITER)) {
+            given()
+                .port(port)
+                .contentType(ContentType.JSON)
+                .body(credentials)
+            .when()
+                .post("/api/auth/register")
+            .then()
+                .statusCode(HttpStatus.OK.value());
+        }
+        return given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(credentials)
+        .when()
+            .post("/api/auth/login")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract()
+            .path("token");
+    }
+
+    @Test
+    @Order(1)
+    void whenClientHasNotWritten_thenReadsAreServedByReplica() {
+        asClient(READER)
+        .when()
+            .get("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("users.email", hasItem(REPLICA_ONLY_EMAIL));
+    }
+
+    @Test
+    @Order(2)
+    void whenClientJustWrote_thenItsReadsGoToPrimary() {
+        asClient(WRITER)
+            .contentType(ContentType.JSON)
+            .body(AviaScannerUserDTO.builder()
+                .name("Primary_User")
+                .email(PRIMARY_EMAIL)
+                .phone("+79609062424")
+                .location("Kazan")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build())
+        .when()
+            .post("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        asClient(WRITER)
+        .when()
+            .get("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("users.email", hasItem(PRIMARY_EMAIL))
+            .body("users.email", not(hasItem(REPLICA_ONLY_EMAIL)));
+
+        asClient(READER)
+        .when()
+            .get("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("users.email", not(hasItem(PRIMARY_EMAIL)));
+    }
+
+    @Test
+    @Order(3)
+    void whenReplicaIsDown_thenReadsFallBackToPrimary() {
+        replica.stop();
+
+        asClient(READER)
+        .when()
+            .get("/api/users")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("users.email", hasItem(PRIMARY_EMAIL));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.aviaScanner.controller;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import com.example.aviaScanner.repository.AviaScanerUserRepository;
+import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Slf4j
+@SpringBootTest(
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "aviascanner.users.audit.enabled=false",
+        "aviascanner.users.changes.relay.enabled=false"
+    })
+@Testcontainers
+@ActiveProfiles("test")
+public class AviaScannerUserStatementCountTest {
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+        .withDatabaseName("avia_test")
+        .withUsername("postgres")
+        .withPassword("1234");
+
+    @Autowired
+    private AviaScanerUserRepository aviaScanerUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @LocalServerPort
+    private Integer port;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void beforeAll(){
+        log.info("Starting PostgreSQL container");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll(){
+        log.info("Stopping PostgreSQL container");
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private AviaScanerUserEntity saveUser(String email) {
+        return aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("Statement_User")
+            .email(email)
+            .phone("+79609062424")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1990, 1, 1))
+            .build());
+    }
+
+    @Test
+    void whenPatchExistingUser_thenSingleStatementIsExecuted() {
+        Long id = saveUser("patch-count@example.com").getId();
+        statistics.clear();
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(Map.of("name", "Renamed", "location", "Kazan"))
+        .when()
+            .patch("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        AviaScanerUserEntity updated = aviaScanerUserRepository.findById(id).orElseThrow();
+        assertEquals("Renamed", updated.getName());
+        assertEquals("Kazan", updated.getLocation());
+        assertEquals("patch-count@example.com", updated.getEmail());
+    }
+
+    @Test
+    void whenPatchNonExistingUser_thenSingleStatementIsExecuted() {
+        statistics.clear();
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .body(Map.of("name", "Renamed"))
+        .when()
+            .patch("/api/users/987654")
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenDeleteExistingUser_thenSingleStatementIsExecuted() {
+        Long id = saveUser("delete-count@example.com").getId();
+        statistics.clear();
+
+        given()
+            .port(port)
+        .when()
+            .delete("/api/users/" + id)
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(aviaScanerUserRepository.existsById(id));
+    }
+}
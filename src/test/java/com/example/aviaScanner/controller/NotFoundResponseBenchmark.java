@@ -0,0 +1,68 @@
+package com.example.aviaScanner.controller;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.ErrorResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Cost of answering a lookup for an unknown id: the previous throw/catch flow with a
+ * hand-built ErrorResponse against the Optional-based flow. Run with the gc profiler
+ * (mvn -Pbenchmark -Djmh.includes=NotFoundResponseBenchmark) to compare gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotFoundResponseBenchmark {
+    private Long id;
+    private String requestUri;
+
+    @Setup
+    public void setUp() {
+        id = 987654L;
+        requestUri = "/api/users/" + id;
+    }
+
+    private AviaScannerUserDTO lookupNull() {
+        return null;
+    }
+
+    private Optional<AviaScannerUserDTO> lookupEmpty() {
+        return Optional.empty();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> exceptionFlow() {
+        try {
+            AviaScannerUserDTO user = lookupNull();
+            if (user == null) {
+                throw new Exception("User not found");
+            }
+            return ResponseEntity.ok(user);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse();
+            errorResponse.setTimestamp(LocalDateTime.now());
+            errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
+            errorResponse.setError("Not Found");
+            errorResponse.setMessage("User not found");
+            errorResponse.setPath("/api/users/" + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> optionalFlow() {
+        Optional<AviaScannerUserDTO> user = lookupEmpty();
+        if (user.isPresent()) {
+            return ResponseEntity.ok(user.get());
+        }
+        return aviaScannerUserController.notFound(requestUri);
+    }
+}
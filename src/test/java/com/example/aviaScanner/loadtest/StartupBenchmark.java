@@ -0,0 +1,198 @@
+package com.example.aviaScanner.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the application in each startup configuration and reports the time from process start
+ * to the first successful GET /api/users/{id}, plus the resident set size at that moment (read
+ * from /proc, so Linux only). Build the layout first and have Postgres running:
+ *
+ * <pre>
+ * mvn -Pstartup package -DskipTests
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.aviaScanner.loadtest.StartupBenchmark \
+ *     -Dexec.args="target/aviaScanner-0.0.1-SNAPSHOT.jar 5"
+ * </pre>
+ *
+ * Arguments: jar, runs per configuration, then any application arguments
+ * (e.g. --spring.datasource.url=...). A setup run creates the admin account and the user read
+ * by the measured runs, which share one token secret so the token stays valid across restarts.
+ */
+public class StartupBenchmark {
+    private static final String BASE_URL = "http://localhost:8080";
+    private static final String ADMIN_EMAIL = "startup-benchmark@example.com";
+    private static final String ADMIN_PASSWORD = "startup-benchmark";
+
+    private record Configuration(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    private record Sample(long millis, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "target/aviaScanner-0.0.1-SNAPSHOT.jar");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<String> extraArgs = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : List.of();
+        Path archive = jar.resolveSibling("app.jsa");
+
+        List<Configuration> configurations = List.of(
+            new Configuration("ddl-validate + flyway", List.of(), List.of()),
+            new Configuration("prod", List.of(), List.of("--spring.profiles.active=prod")),
+            new Configuration("prod + AOT", List.of("-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=prod")),
+            new Configuration("prod + AOT + CDS",
+                List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off"),
+                List.of("--spring.profiles.active=prod")));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        String secret = java.util.Base64.getEncoder().encodeToString(
+            (UUID.randomUUID() + UUID.randomUUID().toString()).getBytes());
+        Map<String, String> environment = Map.of(
+            "AVIASCANNER_AUTH_TOKEN_SECRET", secret,
+            "AVIASCANNER_ADMIN_EMAIL", ADMIN_EMAIL,
+            "AVIASCANNER_ADMIN_PASSWORD", ADMIN_PASSWORD);
+
+        String[] setup = setUp(client, jar, environment, extraArgs);
+        String token = setup[0];
+        String path = "/api/users/" + setup[1];
+
+        System.out.printf("%-24s %12s %12s%n", "configuration", "first GET ms", "RSS MB");
+        for (Configuration configuration : configurations) {
+            if (configuration.jvmArgs().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"))
+                    && !Files.exists(archive)) {
+                System.out.printf("%-24s skipped, %s not found%n", configuration.name(), archive);
+                continue;
+            }
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(measure(client, jar, configuration, environment, extraArgs, token, path));
+            }
+            samples.sort((a, b) -> Long.compare(a.millis(), b.millis()));
+            Sample median = samples.get(samples.size() / 2);
+            System.out.printf("%-24s %12d %12.1f%n", configuration.name(), median.millis(), median.rssKb() / 1024.0);
+        }
+    }
+
+    // Unmeasured run: logs in as the bootstrap admin and makes sure there is a user to read.
+    private static String[] setUp(HttpClient client, Path jar, Map<String, String> environment,
+            List<String> extraArgs) throws Exception {
+        Process process = start(jar, List.of(), environment, extraArgs);
+        try {
+            ObjectMapper objectMapper = new ObjectMapper();
+            HttpRequest loginRequest = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"email\":\"" + ADMIN_EMAIL + "\",\"password\":\"" + ADMIN_PASSWORD + "\"}"))
+                .build();
+            // the admin is created once the application is ready, which can be after the port opens
+            HttpResponse<String> login = awaitResponse(client, loginRequest, process);
+            for (int attempt = 0; login.statusCode() != 200 && attempt < 100; attempt++) {
+                Thread.sleep(100);
+                login = awaitResponse(client, loginRequest, process);
+            }
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("login answered " + login.statusCode() + " " + login.body());
+            }
+            String token = objectMapper.readTree(login.body()).get("token").asText();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/users"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Startup_Benchmark\","
+                    + "\"email\":\"startup-benchmark-user@example.com\",\"phone\":\"+79609062424\","
+                    + "\"location\":\"Moscow\",\"birthDate\":\"01.01.1990\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode body = objectMapper.readTree(created.body());
+            String userId = body.has("existingId") ? body.get("existingId").asText() : body.get("id").asText();
+            return new String[] {token, userId};
+        } finally {
+            stop(process);
+        }
+    }
+
+    private static Sample measure(HttpClient client, Path jar, Configuration configuration,
+            Map<String, String> environment, List<String> extraArgs, String token, String path) throws Exception {
+        List<String> appArgs = new ArrayList<>(configuration.appArgs());
+        appArgs.addAll(extraArgs);
+        long start = System.nanoTime();
+        Process process = start(jar, configuration.jvmArgs(), environment, appArgs);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+            while (true) {
+                HttpResponse<String> response = awaitResponse(client, request, process);
+                if (response.statusCode() == 200) {
+                    long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    return new Sample(millis, rssKb(process.pid()));
+                }
+                if (response.statusCode() != 503) {
+                    throw new IllegalStateException(configuration.name() + ": GET " + path + " answered "
+                        + response.statusCode() + " " + response.body());
+                }
+            }
+        } finally {
+            stop(process);
+        }
+    }
+
+    private static Process start(Path jar, List<String> jvmArgs, Map<String, String> environment,
+            List<String> appArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(appArgs);
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().putAll(environment);
+        return builder.start();
+    }
+
+    // Polls until the server accepts the connection and answers.
+    private static HttpResponse<String> awaitResponse(HttpClient client, HttpRequest request, Process process)
+            throws Exception {
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("application exited with " + process.exitValue());
+            }
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, java.util.concurrent.TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
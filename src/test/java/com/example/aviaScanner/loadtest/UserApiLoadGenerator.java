@@ -0,0 +1,81 @@
+package com.example.aviaScanner.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+
+/**
+ * Closed-loop load generator for the fan-out GET /api/users/{id} pattern, used
+ * to compare the default (MVC + JPA) and "reactive" (WebFlux + R2DBC) stacks.
+ * Start the application with the profile under test, then run e.g.
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.aviaScanner.loadtest.UserApiLoadGenerator \
+ *     -Dexec.args="http://localhost:8080 2000 60 1 100000"
+ * </pre>
+ *
+ * Arguments: base url, concurrent clients, duration in seconds, min id, max id.
+ */
+public class UserApiLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long minId = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        long maxId = args.length > 4 ? Long.parseLong(args[4]) : 10_000;
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        ConcurrentHistogram latencies = new ConcurrentHistogram(Duration.ofSeconds(60).toNanos(), 3);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long id = ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + id))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies.recordValue(System.nanoTime() - start);
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long requests = latencies.getTotalCount();
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s%n",
+            concurrency, seconds, requests, errors.get(), requests / (double) seconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+            millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+            millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+            millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.aviaScanner.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import java.time.LocalDate;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Starts the app on a database built by ddl-auto=update before the migrations existed: it is
+// baselined at version 0 and upgraded by V1, and ddl-auto=validate must accept the result.
+@Slf4j
+@SpringBootTest(properties = {
+    "aviascanner.users.audit.enabled=false",
+    "aviascanner.users.changes.relay.enabled=false"
+})
+@Testcontainers
+@ActiveProfiles("test")
+public class LegacySchemaMigrationIntegrationTest {
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+        .withDatabaseName("avia_legacy")
+        .withUsername("postgres")
+        .withPassword("1234")
+        .withInitScript("db/legacy-schema.sql");
+
+    @Autowired
+    private AviaScanerUserRepository aviaScanerUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void beforeAll(){
+        log.info("Starting PostgreSQL container");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll(){
+        log.info("Stopping PostgreSQL container");
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void whenLegacySchemaIsMigrated_thenEveryMigrationRunsAfterBaseline() {
+        assertEquals("0", jdbcTemplate.queryForObject(
+            "SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'", String.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM flyway_schema_history WHERE type = 'SQL' AND success", Integer.class));
+    }
+
+    @Test
+    void whenLegacySchemaIsMigrated_thenExistingUsersAreKept() {
+        AviaScanerUserEntity user = aviaScanerUserRepository.findById(2L).orElseThrow();
+
+        assertEquals("legacy-two@example.com", user.getEmail());
+        assertEquals(0L, user.getVersion());
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM app_scanner_user WHERE search_text LIKE '%moscow%'", Integer.class));
+    }
+
+    @Test
+    void whenUserIsCreatedAfterMigration_thenIdComesAfterLegacyIds() {
+        AviaScanerUserEntity saved = aviaScanerUserRepository.save(AviaScanerUserEntity.builder()
+            .name("After Upgrade")
+            .email("after-upgrade@example.com")
+            .phone("+79609062427")
+            .location("Kazan")
+            .birthDate(LocalDate.of(1991, 1, 1))
+            .build());
+
+        assertTrue(saved.getId() > 3, "id " + saved.getId() + " reuses a legacy id");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.aviaScanner.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Latency of GET /api/users/search's query against a seeded Postgres
+ * (Docker required). Sample-time mode reports p99; the target is 20 ms at
+ * 5M rows. Seeding 5M rows takes a few minutes, use -p rows=500000 for a
+ * quicker run.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+    private static final String[] NAMES = {
+        "vladimir", "anna", "sergey", "olga", "dmitry", "elena", "ivan", "maria", "pavel", "natalia"};
+    private static final String[] LOCATIONS = {
+        "moscow", "kazan", "sochi", "novosibirsk", "saint petersburg", "yekaterinburg", "samara", "omsk"};
+    private static final String[] QUERIES = {
+        "vla", "vladimir", "kaz", "sochi", "ann", "olga12", "user4711", "petersburg", "dmit", "ekaterin"};
+
+    @Param("5000000")
+    private int rows;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement search;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:latest");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure()
+            .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+            .load()
+            .migrate();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO app_scanner_user "
+                + "SELECT g, (" + pgArray(NAMES) + ")[1 + g % " + NAMES.length + "] || g % 1000, "
+                + "'user' || g || '@example.com', '+7960' || lpad((g % 10000000)::text, 7, '0'), "
+                + "(" + pgArray(LOCATIONS) + ")[1 + g % " + LOCATIONS.length + "], "
+                + "date '1950-01-01' + g % 20000 FROM generate_series(1, " + rows + ") g");
+            statement.execute("ANALYZE app_scanner_user");
+        }
+        search = connection.prepareStatement(
+            AviaScanerUserRepository.SEARCH_SQL.replace(":q", "?").replace(":limit", "?"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) throws Exception {
+        String query = QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)];
+        search.setString(1, query);
+        search.setString(2, query);
+        search.setInt(3, 20);
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    private static String pgArray(String[] values) {
+        return "ARRAY['" + String.join("','", values) + "']";
+    }
+}
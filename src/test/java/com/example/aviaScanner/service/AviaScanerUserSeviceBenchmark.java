@@ -0,0 +1,120 @@
+package com.example.aviaScanner.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.example.aviaScanner.DTO.AviaScannerUserDTO;
+import com.example.aviaScanner.DTO.AviaScannerUserPatchDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import com.example.aviaScanner.model.AviaScanerUserEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Request hot path of the user service: DTO/entity conversion and PATCH body
+ * handling, comparing the typed merge-patch binding against the former
+ * Map<String, Object> binding with containsKey/cast column selection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AviaScanerUserSeviceBenchmark {
+    private AviaScannerUserDTO dto;
+    private AviaScanerUserEntity entity;
+    private Map<String, Object> updates;
+    private byte[] patchBody;
+    private ObjectReader mapReader;
+    private ObjectReader patchReader;
+    private AviaScannerUserPatchDTO patch;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() throws Exception {
+        dto = AviaScannerUserDTO.builder()
+            .name("Benchmark_User")
+            .email("bench@example.com")
+            .phone("+79609062424")
+            .location("Moscow")
+            .birthDate(LocalDate.of(1990, 1, 1))
+            .build();
+        entity = AviaScanerUserSevice.convertToEntity(dto);
+        entity.setId(42L);
+        updates = Map.of("name", "Renamed", "phone", "+79609062425", "location", "Kazan");
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        patchBody = objectMapper.writeValueAsBytes(updates);
+        mapReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        patchReader = objectMapper.readerFor(AviaScannerUserPatchDTO.class);
+        patch = patchReader.readValue(patchBody);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // the column selection the map-based PATCH path used before the typed patch replaced it
+    private static Map<String, Object> mapPatchColumns(Map<String, Object> updates) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (String field : List.of("name", "email", "phone", "location")) {
+            if (updates.containsKey(field)) {
+                columns.put(field, (String) updates.get(field));
+            }
+        }
+        return columns;
+    }
+
+    @Benchmark
+    public AviaScanerUserEntity convertToEntity() {
+        return AviaScanerUserSevice.convertToEntity(dto);
+    }
+
+    @Benchmark
+    public AviaScannerUserDTO convertToDTO() {
+        return AviaScanerUserSevice.convertToDTO(entity);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapPatchColumns() {
+        return mapPatchColumns(updates);
+    }
+
+    @Benchmark
+    public Map<String, Object> typedPatchColumns() {
+        return AviaScanerUserSevice.toPatchColumns(patch);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapReadPatchBodyAndSelectColumns() throws Exception {
+        Map<String, Object> body = mapReader.readValue(patchBody);
+        return mapPatchColumns(body);
+    }
+
+    @Benchmark
+    public Map<String, Object> typedReadPatchBodyAndSelectColumns() throws Exception {
+        AviaScannerUserPatchDTO body = patchReader.readValue(patchBody);
+        return AviaScanerUserSevice.toPatchColumns(body);
+    }
+
+    // the typed path additionally validates the touched fields, which the map path never did
+    @Benchmark
+    public Map<String, Object> typedReadValidateAndSelectColumns() throws Exception {
+        AviaScannerUserPatchDTO body = patchReader.readValue(patchBody);
+        Map<String, Object> columns = AviaScanerUserSevice.toPatchColumns(body);
+        AviaScanerUserSevice.validatePatch(validator, columns);
+        return columns;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.aviaScanner.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.example.aviaScanner.DTO.FlightOfferDTO;
+import com.example.aviaScanner.DTO.FlightProviderStatus;
+import com.example.aviaScanner.DTO.FlightProviderStatusDTO;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FareCacheServiceTest {
+    private static final LocalDate DATE = LocalDate.of(2026, 12, 1);
+    private static final FlightSearchQuery QUERY = new FlightSearchQuery("SVO", "KZN", DATE, 1);
+
+    private final FlightSearchService flightSearchService = mock(FlightSearchService.class);
+    private FareCacheService fareCacheService;
+
+    private static FlightSearchResultDTO result(String... prices) {
+        List<FlightOfferDTO> offers = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            offers.add(new FlightOfferDTO("alpha", "SU" + (100 + i), "SVO", "KZN", DATE.atTime(8, 0),
+                DATE.atTime(9, 30), 90, 0, new BigDecimal(prices[i]), "RUB"));
+        }
+        return new FlightSearchResultDTO("SVO", "KZN", DATE, offers,
+            List.of(new FlightProviderStatusDTO("alpha", FlightProviderStatus.OK, offers.size(), 10, false)), true,
+            Instant.now());
+    }
+
+    private FareCacheService fareCacheService(long freshForMillis) {
+        fareCacheService = new FareCacheService(flightSearchService, mock(PriceAlertService.class),
+            new SimpleMeterRegistry(), 600_000, freshForMillis, 30_000, 64 << 20, "RUB");
+        return fareCacheService;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<FlightSearchResultDTO> anyConsumer() {
+        return any(Consumer.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fareCacheService.destroy();
+    }
+
+    @Test
+    void whenQueryIsCached_thenProvidersAreNotAskedAgain() {
+        when(flightSearchService.search(eq(QUERY), anyInt(), anyConsumer())).thenReturn(result("3000.00", "4000.00"));
+        FareCacheService service = fareCacheService(60_000);
+
+        assertEquals(2, service.search(QUERY, 10).getOffers().size());
+        List<FlightSearchResultDTO> partials = new ArrayList<>();
+        FlightSearchResultDTO hit = service.search(QUERY, 1, partials::add);
+
+        assertEquals(1, hit.getOffers().size());
+        assertEquals(new BigDecimal("3000.00"), hit.getOffers().get(0).getPrice());
+        assertTrue(partials.isEmpty());
+        verify(flightSearchService, times(1)).search(eq(QUERY), anyInt(), anyConsumer());
+    }
+
+    @Test
+    void whenSameQueryIsSearchedConcurrently_thenOneUpstreamSearchServesEveryCaller() throws Exception {
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightSearchService.search(eq(QUERY), anyInt(), anyConsumer())).thenAnswer(invocation -> {
+            Consumer<FlightSearchResultDTO> onProvider = invocation.getArgument(2);
+            onProvider.accept(result("3000.00"));
+            published.countDown();
+            release.await();
+            return result("3000.00", "4000.00");
+        });
+        FareCacheService service = fareCacheService(60_000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            // the first partial is out before most callers arrive, so they only see it replayed
+            Future<FlightSearchResultDTO> first = callers.submit(() -> service.search(QUERY, 10));
+            assertTrue(published.await(5, TimeUnit.SECONDS));
+            AtomicInteger partials = new AtomicInteger();
+            List<Future<FlightSearchResultDTO>> streams = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                streams.add(callers.submit(() -> service.search(QUERY, 10, partial -> partials.incrementAndGet())));
+            }
+            Future<FlightSearchResultDTO> plain = callers.submit(() -> service.search(QUERY, 1));
+            // every streaming caller has subscribed once it got its replayed partial
+            for (int i = 0; i < 500 && partials.get() < 4; i++) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals(2, first.get(5, TimeUnit.SECONDS).getOffers().size());
+            for (Future<FlightSearchResultDTO> stream : streams) {
+                assertEquals(2, stream.get(5, TimeUnit.SECONDS).getOffers().size());
+            }
+            assertEquals(1, plain.get(5, TimeUnit.SECONDS).getOffers().size());
+            assertEquals(4, partials.get());
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(flightSearchService, times(1)).search(eq(QUERY), anyInt(), anyConsumer());
+    }
+
+    @Test
+    void whenStreamingCallerStartsTheSearch_thenItGetsPartialsAndTheResultIsCached() {
+        when(flightSearchService.search(eq(QUERY), anyInt(), anyConsumer())).thenAnswer(invocation -> {
+            Consumer<FlightSearchResultDTO> onProvider = invocation.getArgument(2);
+            onProvider.accept(result("3000.00", "3500.00"));
+            // the other providers take a while
+            Thread.sleep(200);
+            return result("3000.00", "3500.00", "4000.00");
+        });
+        FareCacheService service = fareCacheService(60_000);
+        List<FlightSearchResultDTO> partials = new ArrayList<>();
+
+        FlightSearchResultDTO streamed = service.search(QUERY, 1, partials::add);
+
+        // the loader runs on its own thread and may publish before this caller subscribes: it is replayed
+        assertEquals(1, partials.size());
+        assertEquals(1, partials.get(0).getOffers().size());
+        assertEquals(1, streamed.getOffers().size());
+        assertEquals(3, service.search(QUERY, 10).getOffers().size());
+        verify(flightSearchService, times(1)).search(eq(QUERY), anyInt(), anyConsumer());
+    }
+
+    @Test
+    void whenEntryIsNoLongerFresh_thenItIsServedWhileRefreshedInBackground() throws InterruptedException {
+        AtomicInteger searches = new AtomicInteger();
+        when(flightSearchService.search(eq(QUERY), anyInt(), anyConsumer())).thenAnswer(invocation -> {
+            if (searches.getAndIncrement() == 0) {
+                return result("3000.00");
+            }
+            // slow enough that the stale entry is certainly served in the meantime
+            Thread.sleep(200);
+            return result("2500.00");
+        });
+        FareCacheService service = fareCacheService(100);
+
+        assertEquals(new BigDecimal("3000.00"), service.search(QUERY, 10).getOffers().get(0).getPrice());
+        Thread.sleep(150);
+        // the stale entry answers at once and triggers the refresh
+        assertEquals(new BigDecimal("3000.00"), service.search(QUERY, 10).getOffers().get(0).getPrice());
+        BigDecimal price = null;
+        for (int i = 0; i < 500 && !new BigDecimal("2500.00").equals(price); i++) {
+            Thread.sleep(10);
+            price = service.search(QUERY, 10).getOffers().get(0).getPrice();
+        }
+
+        assertEquals(new BigDecimal("2500.00"), price);
+        verify(flightSearchService, times(2)).search(eq(QUERY), anyInt(), anyConsumer());
+    }
+}
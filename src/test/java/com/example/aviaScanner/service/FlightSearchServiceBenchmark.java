@@ -0,0 +1,62 @@
+package com.example.aviaScanner.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Search latency as the number of fare providers grows, with and without hedging. Every stub
+ * has a median of 20 ms and a p99 of 150 ms, so without hedging the chance that some provider
+ * hits its tail grows with the provider count. Sample-time mode reports p99; eight searches run
+ * at once so the hedge budget is shared the way it is under load.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightSearchServiceBenchmark {
+    private static final String[] DESTINATIONS = {"LED", "KZN", "AER", "OVB", "SVX", "KUF", "OMS", "MRV"};
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int providers;
+
+    @Param({"true", "false"})
+    private boolean hedging;
+
+    private FlightSearchService flightSearchService;
+
+    @Setup
+    public void setUp() {
+        List<FareProvider> fareProviders = new ArrayList<>(providers);
+        for (int i = 0; i < providers; i++) {
+            fareProviders.add(new StubFareProvider("provider" + i, 20, 150, 0.01, 20, "RUB"));
+        }
+        long timeoutMillis = 500;
+        // about the stubs' p90; a delay equal to the timeout never hedges
+        long hedgeDelayMillis = hedging ? 60 : timeoutMillis;
+        flightSearchService = new FlightSearchService(fareProviders, new StandardEnvironment(),
+            new SimpleMeterRegistry(), timeoutMillis, hedgeDelayMillis, 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        flightSearchService.destroy();
+    }
+
+    @Benchmark
+    public FlightSearchResultDTO search() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        FlightSearchQuery query = new FlightSearchQuery("SVO", DESTINATIONS[random.nextInt(DESTINATIONS.length)],
+            LocalDate.of(2026, 11, 1).plusDays(random.nextInt(60)), 1);
+        return flightSearchService.search(query, 50);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.aviaScanner.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import com.example.aviaScanner.DTO.FlightOfferDTO;
+import com.example.aviaScanner.DTO.FlightProviderStatus;
+import com.example.aviaScanner.DTO.FlightProviderStatusDTO;
+import com.example.aviaScanner.DTO.FlightSearchResultDTO;
+import com.example.aviaScanner.exception.FlightSearchUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FlightSearchServiceTest {
+    private static final LocalDate DATE = LocalDate.of(2026, 12, 1);
+    private static final FlightSearchQuery QUERY = new FlightSearchQuery("SVO", "KZN", DATE, 1);
+
+    private FlightSearchService service;
+
+    // Sleeps for the delay of its n-th call (the last one repeats), then answers or fails.
+    private static final class FakeProvider implements FareProvider {
+        private final String name;
+        private final long[] delaysMillis;
+        private final boolean fails;
+        private final List<FlightOfferDTO> offers;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger interrupted = new AtomicInteger();
+
+        FakeProvider(String name, boolean fails, List<FlightOfferDTO> offers, long... delaysMillis) {
+            this.name = name;
+            this.fails = fails;
+            this.offers = offers;
+            this.delaysMillis = delaysMillis;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public List<FlightOfferDTO> search(FlightSearchQuery query) throws IOException, InterruptedException {
+            int call = calls.getAndIncrement();
+            try {
+                Thread.sleep(delaysMillis[Math.min(call, delaysMillis.length - 1)]);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw e;
+            }
+            if (fails) {
+                throw new IOException(name + " is down");
+            }
+            return offers;
+        }
+    }
+
+    private static FlightOfferDTO offer(String provider, String flightNumber, int hour, int durationMinutes,
+            String price) {
+        LocalDateTime departure = DATE.atTime(hour, 0);
+        return new FlightOfferDTO(provider, flightNumber, "SVO", "KZN", departure,
+            departure.plusMinutes(durationMinutes), durationMinutes, 0, new BigDecimal(price), "RUB");
+    }
+
+    private FlightSearchService service(long timeoutMillis, long hedgeDelayMillis, FareProvider... providers) {
+        service = new FlightSearchService(List.of(providers), new MockEnvironment(), new SimpleMeterRegistry(),
+            timeoutMillis, hedgeDelayMillis, 100);
+        return service;
+    }
+
+    private static FlightProviderStatusDTO status(FlightSearchResultDTO result, String provider) {
+        return result.getProviders().stream()
+            .filter(status -> status.getProvider().equals(provider))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void whenProvidersAnswer_thenOffersAreMergedAndRanked() {
+        FakeProvider alpha = new FakeProvider("alpha", false, List.of(
+            offer("alpha", "SU100", 8, 90, "5000.00"),
+            offer("alpha", "SU200", 10, 95, "4000.00")), 0);
+        FakeProvider beta = new FakeProvider("beta", false, List.of(
+            offer("beta", "SU100", 8, 90, "4500.00"),
+            offer("beta", "DP300", 12, 80, "4000.00"),
+            offer("beta", "DP400", 14, 85, "9000.00")), 0);
+        List<FlightSearchResultDTO> partials = new CopyOnWriteArrayList<>();
+
+        FlightSearchResultDTO result = service(1000, 1000, alpha, beta).search(QUERY, 3, partials::add);
+
+        List<String> ranked = result.getOffers().stream().map(FlightOfferDTO::getFlightNumber).toList();
+        // equal prices are ordered by duration; SU100 sold by both is listed once, at beta's price
+        assertEquals(List.of("DP300", "SU200", "SU100"), ranked);
+        assertEquals(new BigDecimal("4500.00"), result.getOffers().get(2).getPrice());
+        assertEquals("beta", result.getOffers().get(2).getProvider());
+        assertTrue(result.isComplete());
+        assertEquals(2, partials.size());
+        assertTrue(partials.stream().noneMatch(FlightSearchResultDTO::isComplete));
+        assertTrue(partials.stream().allMatch(partial -> partial.getOffers().size() <= 3));
+    }
+
+    @Test
+    void whenProviderMissesItsTimeout_thenOthersAreServedWithoutWaiting() {
+        FakeProvider fast = new FakeProvider("fast", false, List.of(offer("fast", "SU100", 8, 90, "5000.00")), 0);
+        FakeProvider slow = new FakeProvider("slow", false, List.of(offer("slow", "DP300", 12, 80, "1000.00")), 10_000);
+
+        long start = System.nanoTime();
+        // hedge delay above the timeout, so the slow provider is never hedged
+        FlightSearchResultDTO result = service(200, 1000, fast, slow).search(QUERY, 10);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2_000, "search took " + elapsedMillis + " ms");
+        assertEquals(FlightProviderStatus.TIMEOUT, status(result, "slow").getStatus());
+        assertEquals(FlightProviderStatus.OK, status(result, "fast").getStatus());
+        assertEquals(List.of("SU100"), result.getOffers().stream().map(FlightOfferDTO::getFlightNumber).toList());
+        assertFalse(result.isComplete());
+        assertEquals(1, slow.calls.get());
+    }
+
+    @Test
+    void whenProviderIsSlowerThanHedgeDelay_thenSecondRequestWins() throws InterruptedException {
+        // the first call hangs, the hedge answers at once
+        FakeProvider provider = new FakeProvider("alpha", false, List.of(offer("alpha", "SU100", 8, 90, "5000.00")),
+            10_000, 0);
+
+        long start = System.nanoTime();
+        FlightSearchResultDTO result = service(2000, 50, provider).search(QUERY, 10);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        FlightProviderStatusDTO status = status(result, "alpha");
+        assertEquals(FlightProviderStatus.OK, status.getStatus());
+        assertTrue(status.isHedged());
+        assertEquals(2, provider.calls.get());
+        assertTrue(elapsedMillis < 1_000, "search took " + elapsedMillis + " ms");
+        assertTrue(result.isComplete());
+        // the losing attempt is interrupted rather than left running
+        for (int i = 0; i < 100 && provider.interrupted.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, provider.interrupted.get());
+    }
+
+    @Test
+    void whenProviderAnswersBeforeHedgeDelay_thenNoHedgeIsSent() {
+        FakeProvider provider = new FakeProvider("alpha", false, List.of(offer("alpha", "SU100", 8, 90, "5000.00")), 0);
+
+        FlightSearchResultDTO result = service(2000, 500, provider).search(QUERY, 10);
+
+        assertFalse(status(result, "alpha").isHedged());
+        assertEquals(1, provider.calls.get());
+    }
+
+    @Test
+    void whenProviderFails_thenItIsReportedAndOthersAreServed() {
+        FakeProvider healthy = new FakeProvider("healthy", false, List.of(offer("healthy", "SU100", 8, 90, "5000.00")), 0);
+        FakeProvider broken = new FakeProvider("broken", true, List.of(), 0);
+
+        FlightSearchResultDTO result = service(1000, 1000, healthy, broken).search(QUERY, 10);
+
+        assertEquals(FlightProviderStatus.FAILED, status(result, "broken").getStatus());
+        assertEquals(0, status(result, "broken").getOffers());
+        assertEquals(FlightProviderStatus.OK, status(result, "healthy").getStatus());
+        assertEquals(1, result.getOffers().size());
+        assertFalse(result.isComplete());
+    }
+
+    @Test
+    void whenHedgeFailsToo_thenProviderIsFailedOnlyAfterBothAttempts() {
+        FakeProvider provider = new FakeProvider("alpha", true, List.of(), 200, 0);
+        List<FlightSearchResultDTO> partials = new ArrayList<>();
+
+        FlightSearchResultDTO result = service(2000, 50, provider).search(QUERY, 10, partials::add);
+
+        assertEquals(FlightProviderStatus.FAILED, status(result, "alpha").getStatus());
+        assertTrue(status(result, "alpha").isHedged());
+        assertEquals(2, provider.calls.get());
+        assertEquals(1, partials.size());
+    }
+
+    @Test
+    void whenNoProviderIsConfigured_thenSearchIsUnavailable() {
+        assertThrows(FlightSearchUnavailableException.class, () -> service(1000, 1000).search(QUERY, 10));
+    }
+}
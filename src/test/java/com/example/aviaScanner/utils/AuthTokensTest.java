@@ -0,0 +1,43 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+
+public class AuthTokensTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    private final AuthTokens tokens = new AuthTokens(secret((byte) 1), Duration.ofMinutes(15));
+
+    @Test
+    void whenTokenIsValid_thenUserIdIsReturned() {
+        AuthTokens.Token token = tokens.issue(42, NOW);
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), token.expiresAt());
+        assertEquals(OptionalLong.of(42), tokens.verify(token.value(), NOW.plusSeconds(60)));
+    }
+
+    @Test
+    void whenTokenIsExpired_thenItIsRejected() {
+        AuthTokens.Token token = tokens.issue(42, NOW);
+        assertTrue(tokens.verify(token.value(), token.expiresAt()).isEmpty());
+    }
+
+    @Test
+    void whenTokenIsTamperedOrForeign_thenItIsRejected() {
+        String token = tokens.issue(42, NOW).value();
+        assertTrue(tokens.verify("43" + token.substring(2), NOW).isEmpty());
+        assertTrue(new AuthTokens(secret((byte) 2), Duration.ofMinutes(15)).verify(token, NOW).isEmpty());
+        assertTrue(tokens.verify("garbage", NOW).isEmpty());
+        assertTrue(tokens.verify("a.b.c", NOW).isEmpty());
+    }
+
+    private static byte[] secret(byte value) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, value);
+        return secret;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class GcraRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void whenBurstIsSpent_thenRequestsAreRejectedUntilTokensRefill() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 5);
+        long now = SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client", 1, now));
+        }
+        long wait = limiter.tryAcquire("client", 1, now);
+        assertEquals(SECOND / 10, wait);
+        assertEquals(0, limiter.tryAcquire("client", 1, now + wait));
+        assertEquals(0, limiter.tryAcquire("other", 1, now));
+    }
+
+    @Test
+    void whenRequestIsExpensive_thenItTakesItsCostFromTheBucket() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 20);
+        assertEquals(0, limiter.tryAcquire("client", 15, SECOND));
+        assertTrue(limiter.tryAcquire("client", 10, SECOND) > 0);
+        assertEquals(0, limiter.tryAcquire("client", 5, SECOND));
+        // a cost above the burst is capped instead of never being admitted
+        assertEquals(0, limiter.tryAcquire("rich", 500, SECOND));
+    }
+
+    @Test
+    void whenBucketHasRefilled_thenItIsEvicted() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 5);
+        limiter.tryAcquire("idle", 1, SECOND);
+        limiter.tryAcquire("busy", 5, SECOND);
+        assertEquals(1, limiter.evictIdle(SECOND + SECOND / 10));
+        assertEquals(1, limiter.size());
+        assertEquals(1, limiter.evictIdle(2 * SECOND));
+        assertEquals(0, limiter.size());
+    }
+}
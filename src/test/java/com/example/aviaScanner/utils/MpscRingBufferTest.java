@@ -0,0 +1,82 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+public class MpscRingBufferTest {
+
+    @Test
+    void whenBufferIsFull_thenOfferIsRejected() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void whenCapacityIsNotPowerOfTwo_thenConstructorFails() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(100));
+    }
+
+    @Test
+    void whenManyProducersOffer_thenConsumerSeesEveryElementOnceInProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        Set<Long> seen = new HashSet<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            assertEquals(lastSeen[producer] + 1, element[1]);
+            lastSeen[producer] = element[1];
+            assertTrue(seen.add(element[0] * perProducer + element[1]));
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+}
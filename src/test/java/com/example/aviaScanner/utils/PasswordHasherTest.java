@@ -0,0 +1,34 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class PasswordHasherTest {
+
+    @Test
+    void whenPasswordMatches_thenHashIsAccepted() {
+        PasswordHasher hasher = new PasswordHasher(1000);
+        String hash = hasher.hash("correct horse");
+        assertTrue(hash.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(hasher.matches("correct horse", hash));
+        assertFalse(hasher.matches("correct horsE", hash));
+        assertNotEquals(hash, hasher.hash("correct horse"));
+    }
+
+    @Test
+    void whenIterationsAreRaised_thenOldHashStillMatchesButNeedsRehash() {
+        String hash = new PasswordHasher(1000).hash("correct horse");
+        PasswordHasher stronger = new PasswordHasher(2000);
+        assertTrue(stronger.matches("correct horse", hash));
+        assertTrue(stronger.needsRehash(hash));
+        assertFalse(stronger.needsRehash(stronger.hash("correct horse")));
+    }
+
+    @Test
+    void whenHashIsMalformed_thenItDoesNotMatch() {
+        PasswordHasher hasher = new PasswordHasher(1000);
+        assertFalse(hasher.matches("secret", "plain-text-password"));
+        assertFalse(hasher.matches("secret", "pbkdf2-sha256$1000$not base64$x"));
+    }
+}
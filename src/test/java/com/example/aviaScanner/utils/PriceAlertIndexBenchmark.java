@@ -0,0 +1,93 @@
+package com.example.aviaScanner.utils;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Fare updates per second that the single alert matcher thread can take against ten million
+ * alerts spread over 9900 routes between 100 airports. Fares usually stay within 80-130% of a
+ * per-route base price and alerts are set at 50-80% of it, so most updates fire nothing; one in
+ * a thousand is a sale at 40-80% that fires about half the route's alerts. Every fired alert is
+ * replaced by a new one, keeping the index at its size. The fired counter reports alerts fired
+ * per second alongside the update rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PriceAlertIndexBenchmark {
+    private static final int AIRPORTS = 100;
+    private static final int SUBSCRIPTIONS = 10_000_000;
+    private static final int SALE_ONE_IN = 1000;
+
+    private final String[] codes = new String[AIRPORTS];
+    private final long[] basePrices = new long[AIRPORTS * AIRPORTS];
+    private final SplittableRandom random = new SplittableRandom(42);
+    private PriceAlertIndex index;
+    private long nextId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Fired {
+        public long fired;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            fired = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < AIRPORTS; i++) {
+            codes[i] = "" + (char) ('A' + i / 26 / 26 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+        }
+        index = new PriceAlertIndex();
+        int routes = AIRPORTS * (AIRPORTS - 1);
+        long[] thresholds = new long[SUBSCRIPTIONS / routes + 1];
+        int added = 0;
+        for (int origin = 0; origin < AIRPORTS; origin++) {
+            for (int destination = 0; destination < AIRPORTS; destination++) {
+                if (origin == destination) {
+                    continue;
+                }
+                long base = random.nextLong(3_000_00, 30_000_00);
+                basePrices[origin * AIRPORTS + destination] = base;
+                int count = Math.min(thresholds.length, SUBSCRIPTIONS - added);
+                for (int i = 0; i < count; i++) {
+                    thresholds[i] = threshold(base);
+                }
+                // the order alerts are loaded in at startup
+                Arrays.sort(thresholds, 0, count);
+                for (int i = 0; i < count; i++) {
+                    index.add(nextId++, codes[origin], codes[destination], thresholds[i]);
+                }
+                added += count;
+            }
+        }
+    }
+
+    @Benchmark
+    public int fareUpdate(Fired counters) {
+        int origin = random.nextInt(AIRPORTS);
+        int destination = (origin + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+        long base = basePrices[origin * AIRPORTS + destination];
+        long price = random.nextInt(SALE_ONE_IN) == 0
+            ? base * random.nextInt(40, 80) / 100
+            : base * random.nextInt(80, 130) / 100;
+        int fired = index.match(codes[origin], codes[destination], price, id -> { });
+        for (int i = 0; i < fired; i++) {
+            index.add(nextId++, codes[origin], codes[destination], threshold(base));
+        }
+        counters.fired += fired;
+        return fired;
+    }
+
+    private long threshold(long base) {
+        return base * random.nextInt(50, 80) / 100;
+    }
+}
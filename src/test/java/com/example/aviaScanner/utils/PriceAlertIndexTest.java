@@ -0,0 +1,55 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PriceAlertIndexTest {
+
+    @Test
+    void whenFareIsAtOrBelowThreshold_thenAlertFiresOnce() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, "SVO", "LED", 5_000_00);
+        index.add(2, "SVO", "LED", 3_000_00);
+        index.add(3, "SVO", "LED", 4_000_00);
+        index.add(4, "SVO", "AER", 9_000_00);
+        index.add(5, "LED", "SVO", 9_000_00);
+
+        List<Long> fired = new ArrayList<>();
+        assertEquals(2, index.match("SVO", "LED", 4_000_00, fired::add));
+        assertEquals(List.of(3L, 1L), fired);
+        assertEquals(0, index.match("SVO", "LED", 4_000_00, fired::add));
+        assertEquals(0, index.match("SVO", "LED", 3_000_01, fired::add));
+        assertEquals(1, index.match("SVO", "LED", 2_000_00, fired::add));
+        assertEquals(List.of(3L, 1L, 2L), fired);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void whenAlertIsRemoved_thenOnlyThatAlertStopsMatching() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.add(id, "SVO", "LED", 1_000_00);
+        }
+        assertTrue(index.remove(42, "SVO", "LED", 1_000_00));
+        assertFalse(index.remove(42, "SVO", "LED", 1_000_00));
+        assertFalse(index.remove(7, "SVO", "LED", 2_000_00));
+        assertFalse(index.remove(7, "SVO", "KZN", 1_000_00));
+
+        List<Long> fired = new ArrayList<>();
+        assertEquals(99, index.match("SVO", "LED", 1_000_00, fired::add));
+        assertFalse(fired.contains(42L));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void whenRouteIsUnknown_thenNothingMatches() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, "SVO", "LED", 1_000_00);
+        assertEquals(0, index.match("LED", "SVO", 1, id -> fail()));
+        assertEquals(0, index.match("OVB", "KZN", 1, id -> fail()));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.aviaScanner.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RouteIndexTest {
+    private static final long TTL = 60_000;
+    private static final long TODAY = 20_000;
+
+    @Test
+    void whenRoutesAreRecorded_thenCheapestComeFirst() {
+        RouteIndex index = new RouteIndex(TTL);
+        index.record("SVO", "LED", TODAY + 1, 5_000_00, 0);
+        index.record("SVO", "AER", TODAY + 1, 3_000_00, 0);
+        index.record("SVO", "KZN", TODAY + 2, 4_000_00, 0);
+        index.record("LED", "SVO", TODAY + 1, 1_000_00, 0);
+
+        List<RouteIndex.Fare> fares = index.cheapestFrom("SVO", TODAY, 0, 2);
+        assertEquals(List.of(new RouteIndex.Fare("SVO", "AER", TODAY + 1, 3_000_00),
+            new RouteIndex.Fare("SVO", "KZN", TODAY + 2, 4_000_00)), fares);
+        assertEquals(4, index.airports());
+        assertEquals(4, index.routes());
+    }
+
+    @Test
+    void whenSameDateIsSearchedAgain_thenNewPriceReplacesOldOne() {
+        RouteIndex index = new RouteIndex(TTL);
+        index.record("SVO", "LED", TODAY + 1, 3_000_00, 0);
+        index.record("SVO", "LED", TODAY + 1, 4_000_00, 1_000);
+        assertEquals(4_000_00, index.cheapestFrom("SVO", TODAY, 1_000, 10).get(0).priceMinor());
+        // a dearer fare on another date only wins once the stored one has expired
+        index.record("SVO", "LED", TODAY + 2, 5_000_00, 2_000);
+        assertEquals(TODAY + 1, index.cheapestFrom("SVO", TODAY, 2_000, 10).get(0).epochDay());
+        index.record("SVO", "LED", TODAY + 2, 5_000_00, 1_000 + TTL + 1);
+        assertEquals(TODAY + 2, index.cheapestFrom("SVO", TODAY, 1_000 + TTL + 1, 10).get(0).epochDay());
+        assertEquals(1, index.routes());
+    }
+
+    @Test
+    void whenFareIsStaleOrInThePast_thenItIsNotReturned() {
+        RouteIndex index = new RouteIndex(TTL);
+        index.record("SVO", "LED", TODAY - 1, 3_000_00, 0);
+        index.record("SVO", "AER", TODAY + 1, 3_000_00, 0);
+        assertEquals(1, index.cheapestFrom("SVO", TODAY, 0, 10).size());
+        assertTrue(index.cheapestFrom("SVO", TODAY, TTL + 1, 10).isEmpty());
+        assertTrue(index.cheapestFrom("OVB", TODAY, 0, 10).isEmpty());
+    }
+
+    @Test
+    void whenExpiredRoutesAreEvicted_thenTheirRoomIsGivenBack() {
+        RouteIndex index = new RouteIndex(TTL);
+        for (int i = 0; i < 100; i++) {
+            index.record("SVO", code(i), TODAY + 1, 3_000_00, 0);
+        }
+        index.record("SVO", "LED", TODAY - 1, 3_000_00, TTL);
+        index.record("SVO", "AER", TODAY + 1, 3_000_00, TTL);
+        long bytes = index.estimatedBytes();
+
+        assertEquals(101, index.evictExpired(TODAY, TTL + 1));
+        assertEquals(1, index.routes());
+        assertEquals("AER", index.cheapestFrom("SVO", TODAY, TTL + 1, 10).get(0).destination());
+        assertTrue(index.estimatedBytes() < bytes);
+    }
+
+    @Test
+    void whenManyAirportsAreSeen_thenRowsOnlyHoldTheirOwnRoutes() {
+        RouteIndex index = new RouteIndex(TTL);
+        for (int i = 0; i < 5_000; i++) {
+            index.record(code(i), code(i + 5_000), TODAY + 1, 3_000_00, 0);
+        }
+
+        assertEquals(10_000, index.airports());
+        assertEquals(5_000, index.routes());
+        // one destination per origin, not a slot for every airport the dictionary knows
+        assertTrue(index.estimatedBytes() < 1_000_000, "estimated bytes: " + index.estimatedBytes());
+    }
+
+    private static String code(int i) {
+        return "" + (char) ('A' + i / 676 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+    }
+}
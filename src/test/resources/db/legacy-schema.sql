@@ -0,0 +1,24 @@
+-- Schema as built by ddl-auto=update before the Flyway migrations, with a few users.
+CREATE TABLE app_scanner_user (
+    birth_date date,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    email varchar(255) NOT NULL,
+    location varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    phone varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+ALTER TABLE IF EXISTS app_scanner_user ADD CONSTRAINT uk_legacy_email UNIQUE (email);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    email varchar(255),
+    password varchar(255),
+    role varchar(255),
+    PRIMARY KEY (id)
+);
+
+INSERT INTO app_scanner_user (name, email, phone, location, birth_date) VALUES
+    ('Legacy One', 'legacy-one@example.com', '+79609062424', 'Moscow', '1990-01-01'),
+    ('Legacy Two', 'legacy-two@example.com', '+79609062425', 'Kazan', NULL),
+    ('Legacy Three', 'legacy-three@example.com', '+79609062426', 'Moscow', '1985-06-15');